@@ -0,0 +1,103 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.componentfactory.benchmarks;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vaadin.componentfactory.NoScrollGrid;
+
+/**
+ * Heap retained by a grid scrolled deep with and without
+ * {@link NoScrollGrid#setMaxActiveItems(int)}. Each step sends the range a
+ * grown grid requests, from the first row to the last shown row, through the
+ * same client callable method the connector calls, so the grid's own range
+ * policy decides which items stay active. Rendered rows are the last
+ * {@link NoScrollGrid#getMaxRenderedRows()} rows. Retained heap after the
+ * scroll is reported as a secondary result.
+ * 
+ * @author Vaadin Ltd
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ActiveItemsBenchmark {
+
+	/**
+	 * Heap in use after the scroll, measured after garbage collection.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class HeapCounters {
+		public long retainedHeapKb;
+	}
+
+	private static final int SCROLLED_PAGES = 400;
+
+	@Param({ "0", "500" })
+	public int maxActiveItems;
+
+	private MockUI ui;
+	private NoScrollGrid<Row> grid;
+	private Method setActiveRange;
+
+	@Setup(Level.Iteration)
+	public void setUp() throws ReflectiveOperationException {
+		ui = new MockUI();
+		grid = BenchmarkGrids.createGrid(ui, SCROLLED_PAGES * BenchmarkGrids.PAGE_SIZE, BenchmarkGrids.CALLBACK);
+		grid.setMaxActiveItems(maxActiveItems);
+		// called from browser through @ClientCallable, invoked reflectively like Flow does
+		setActiveRange = NoScrollGrid.class.getDeclaredMethod("setActiveRange", int.class, int.class, int.class,
+				int.class);
+		setActiveRange.setAccessible(true);
+	}
+
+	@Benchmark
+	public void scrollToEnd(HeapCounters counters) throws ReflectiveOperationException {
+		int renderedRows = grid.getMaxRenderedRows() > 0 ? grid.getMaxRenderedRows() : BenchmarkGrids.PAGE_SIZE;
+		for (int page = 0; page < SCROLLED_PAGES; page++) {
+			int end = (page + 1) * BenchmarkGrids.PAGE_SIZE;
+			int renderedStart = Math.max(0, end - renderedRows);
+			setActiveRange.invoke(grid, 0, end, renderedStart, end - renderedStart);
+			ui.flush();
+		}
+		counters.retainedHeapKb = retainedHeap() / 1024;
+	}
+
+	private static long retainedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.componentfactory.benchmarks;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.vaadin.componentfactory.NoScrollGrid;
+
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.data.provider.DataProvider;
+
+/**
+ * Creates grids for benchmarks.
+ * 
+ * @author Vaadin Ltd
+ */
+public final class BenchmarkGrids {
+
+	/**
+	 * Page size of benchmarked grids.
+	 */
+	public static final int PAGE_SIZE = 50;
+
+	/**
+	 * Data provider with items in memory.
+	 */
+	public static final String LIST = "list";
+
+	/**
+	 * Data provider fetching items from callbacks, like a back end.
+	 */
+	public static final String CALLBACK = "callback";
+
+	private BenchmarkGrids() {
+	}
+
+	/**
+	 * Creates grid with three columns, attached to given UI inside a target scroll
+	 * container.
+	 * 
+	 * @param ui       the UI
+	 * @param rows     number of items
+	 * @param provider {@link #LIST} or {@link #CALLBACK}
+	 * @return the grid
+	 */
+	public static NoScrollGrid<Row> createGrid(MockUI ui, int rows, String provider) {
+		NoScrollGrid<Row> grid = new NoScrollGrid<>(PAGE_SIZE);
+		grid.addColumn(Row::getId).setHeader("Id");
+		grid.addColumn(Row::getName).setHeader("Name");
+		grid.addColumn(Row::getValue).setHeader("Value");
+		grid.setDataProvider(createDataProvider(rows, provider));
+
+		Div content = new Div();
+		ui.add(content);
+		content.add(grid);
+		grid.setShowMoreOnScrollToBottom(content.getElement());
+		ui.flush();
+		return grid;
+	}
+
+	private static DataProvider<Row, ?> createDataProvider(int rows, String provider) {
+		if (LIST.equals(provider)) {
+			List<Row> items = IntStream.range(0, rows).mapToObj(Row::new).collect(Collectors.toList());
+			return DataProvider.ofCollection(items);
+		}
+		if (CALLBACK.equals(provider)) {
+			return DataProvider.fromCallbacks(
+					query -> IntStream.range(query.getOffset(), Math.min(rows, query.getOffset() + query.getLimit()))
+							.mapToObj(Row::new),
+					query -> rows);
+		}
+		throw new IllegalArgumentException("Unknown data provider " + provider);
+	}
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.componentfactory.benchmarks;
+
+import org.mockito.Mockito;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.function.DeploymentConfiguration;
+import com.vaadin.flow.internal.StateTree;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinSession;
+
+/**
+ * UI with a mocked, always locked session. Server side of a round trip is
+ * completed with {@link #flush()}, which runs the tasks registered before
+ * client response and drops the changes and JavaScript that would be sent to
+ * browser.
+ * 
+ * @author Vaadin Ltd
+ */
+public class MockUI extends UI {
+
+	/**
+	 * Creates UI and sets it as current UI.
+	 */
+	public MockUI() {
+		VaadinSession session = Mockito.mock(VaadinSession.class);
+		Mockito.when(session.hasLock()).thenReturn(true);
+		Mockito.when(session.getConfiguration()).thenReturn(Mockito.mock(DeploymentConfiguration.class));
+		Mockito.when(session.getService()).thenReturn(Mockito.mock(VaadinService.class));
+		getInternals().setSession(session);
+		UI.setCurrent(this);
+	}
+
+	/**
+	 * Completes server side of a round trip.
+	 */
+	public void flush() {
+		StateTree stateTree = getInternals().getStateTree();
+		stateTree.runExecutionsBeforeClientResponse();
+		stateTree.collectChanges(change -> {
+		});
+		getInternals().dumpPendingJavaScriptInvocations();
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.componentfactory.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vaadin.componentfactory.NoScrollGrid;
+
+/**
+ * Serving page requests of growth steps at the end of data sets of different
+ * size. Each operation requests a page range near the last row and completes
+ * the round trip on server. Run with <code>-prof gc</code> for allocation per
+ * operation.
+ * 
+ * @author Vaadin Ltd
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageRequestBenchmark {
+
+	/**
+	 * Number of pages at the end of data set that requests cycle through, so
+	 * consecutive requests are not identical.
+	 */
+	private static final int DEPTH_PAGES = 10;
+
+	@Param({ "1000", "100000", "1000000" })
+	public int rows;
+
+	@Param({ BenchmarkGrids.LIST, BenchmarkGrids.CALLBACK })
+	public String provider;
+
+	private MockUI ui;
+	private NoScrollGrid<Row> grid;
+	private int request;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		ui = new MockUI();
+		grid = BenchmarkGrids.createGrid(ui, rows, provider);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		ui.removeAll();
+	}
+
+	@Benchmark
+	public void servePage() {
+		int page = request++ % DEPTH_PAGES;
+		int start = Math.max(0, rows - (page + 2) * BenchmarkGrids.PAGE_SIZE);
+		grid.getDataCommunicator().setRequestedRange(start, 2 * BenchmarkGrids.PAGE_SIZE);
+		ui.flush();
+	}
+}
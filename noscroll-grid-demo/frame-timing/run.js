@@ -0,0 +1,277 @@
+/*
+ * Frame timing benchmark of noscroll-grid.js. Runs scripted scenarios on the demo views in headless Chromium
+ * and writes a JSON report with long tasks, layout and style counts, heap size and time per growth step.
+ *
+ *   node run.js [--url http://localhost:8080] [--runs 3] [--out ../target/frame-timing] [--baseline report.json]
+ *
+ * Demo has to be running, for example with 'mvn jetty:run' or 'mvn verify -Pframe-timing'.
+ */
+const fs = require('fs');
+const path = require('path');
+const puppeteer = require('puppeteer');
+
+const options = parseArguments(process.argv.slice(2), {
+  url: 'http://localhost:8080',
+  runs: '3',
+  out: path.join(__dirname, '..', 'target', 'frame-timing'),
+  baseline: ''
+});
+
+/* Recorded in page before any script runs. Growth steps are collected from events dispatched by the connector. */
+function instrumentPage() {
+  window.__frameTiming = { longTasks: [], events: [] };
+  if('PerformanceObserver' in window) {
+    new PerformanceObserver(list => {
+      list.getEntries().forEach(entry => window.__frameTiming.longTasks.push(entry.duration));
+    }).observe({ entryTypes: ['longtask'] });
+  }
+  const dispatchEvent = EventTarget.prototype.dispatchEvent;
+  EventTarget.prototype.dispatchEvent = function(event) {
+    if(event.type.indexOf('noscroll-') === 0) {
+      window.__frameTiming.events.push({ type: event.type, detail: event.detail });
+    }
+    return dispatchEvent.call(this, event);
+  };
+}
+
+/* Helpers evaluated in page. Grids in dialogs are inside shadow roots of overlays. */
+const pageHelpers = `
+  window.__findGrids = function(root) {
+    const grids = [];
+    const visit = node => {
+      node.querySelectorAll('*').forEach(element => {
+        if(element.$noscrollConnector) {
+          grids.push(element);
+        }
+        if(element.shadowRoot) {
+          visit(element.shadowRoot);
+        }
+      });
+    };
+    visit(root || document);
+    return grids;
+  };
+  window.__scrollToEnd = async function(maxSteps, stepPx) {
+    const grid = window.__findGrids()[0];
+    const target = grid.$noscrollConnector.targetScrollTopElement;
+    const frame = () => new Promise(resolve => requestAnimationFrame(resolve));
+    let unchanged = 0;
+    for(let step = 0; step < maxSteps && unchanged < 20; step++) {
+      const before = target === window ? window.scrollY : target.scrollTop;
+      target.scrollBy(0, stepPx);
+      await frame();
+      const after = target === window ? window.scrollY : target.scrollTop;
+      unchanged = after === before ? unchanged + 1 : 0;
+    }
+  };
+`;
+
+const scenarios = [
+  {
+    name: 'demo-long-scroll',
+    path: '/',
+    run: async page => {
+      for(let i = 0; i < 20; i++) {
+        await clickButton(page, 'Add more items to Grid DataProvider');
+      }
+      await settle(page);
+      await page.evaluate(() => window.__scrollToEnd(2000, 120));
+    }
+  },
+  {
+    name: 'demo-filter-typing',
+    path: '/',
+    run: async page => {
+      // input is in the shadow root of vaadin-text-field
+      const input = await page.waitForSelector('pierce/vaadin-text-field input');
+      for(const text of ['a', 'an', 'ann', 'an', 'a', '', 'e', 'er', 'e', '']) {
+        await input.click({ clickCount: 3 });
+        await page.keyboard.press('Backspace');
+        await input.type(text, { delay: 80 });
+        await settle(page);
+        await page.evaluate(() => window.__scrollToEnd(200, 120));
+      }
+    }
+  },
+  {
+    name: 'body-long-scroll',
+    path: '/body',
+    run: async page => {
+      for(let i = 0; i < 20; i++) {
+        await clickButton(page, 'Add more items to Grid DataProvider');
+      }
+      await settle(page);
+      await page.evaluate(() => window.__scrollToEnd(2000, 120));
+    }
+  },
+  {
+    name: 'details-toggle',
+    path: '/details',
+    run: async page => {
+      await clickButton(page, '100 rows');
+      await settle(page);
+      for(let i = 0; i < 4; i++) {
+        await clickButton(page, 'Toggle all details');
+        await settle(page);
+        await page.evaluate(() => window.__scrollToEnd(300, 150));
+      }
+      // single rows opened and closed by click
+      for(let i = 0; i < 10; i++) {
+        await page.evaluate(index => {
+          const grid = window.__findGrids()[0];
+          const cell = Array.from(grid.querySelectorAll('vaadin-grid-cell-content'))[index * 3];
+          if(cell) {
+            cell.click();
+          }
+        }, i);
+        await settle(page);
+      }
+    }
+  },
+  {
+    name: 'dialog-long-scroll',
+    path: '/dialog',
+    run: async page => {
+      await clickButton(page, 'Open grid');
+      await page.waitForFunction(() => window.__findGrids().length > 0);
+      await settle(page);
+      await page.evaluate(() => window.__scrollToEnd(2000, 120));
+    }
+  }
+];
+
+async function clickButton(page, text) {
+  await page.waitForFunction(text => Array.from(document.querySelectorAll('vaadin-button'))
+    .some(button => button.textContent.trim() === text), {}, text);
+  await page.evaluate(text => Array.from(document.querySelectorAll('vaadin-button'))
+    .find(button => button.textContent.trim() === text).click(), text);
+}
+
+/* Waits until grids are done loading and no frame has been busy for a while. */
+async function settle(page) {
+  await page.waitForFunction(() => window.__findGrids().every(grid => !grid.loading && !grid.hasAttribute('showmore')),
+    { polling: 100, timeout: 30000 });
+  await page.waitForTimeout(300);
+}
+
+async function runScenario(browser, scenario) {
+  const page = await browser.newPage();
+  let before, after, heap, duration, recorded;
+  try {
+    await page.setViewport({ width: 1400, height: 900 });
+    await page.evaluateOnNewDocument(instrumentPage);
+    const client = await page.target().createCDPSession();
+    await page.goto(options.url + scenario.path, { waitUntil: 'networkidle0' });
+    await page.evaluate(pageHelpers);
+    await page.waitForFunction(() => window.__findGrids().length > 0 || document.querySelector('vaadin-button'));
+    await settle(page);
+
+    before = await page.metrics();
+    const start = Date.now();
+    await scenario.run(page);
+    await settle(page);
+    duration = Date.now() - start;
+    after = await page.metrics();
+    await client.send('HeapProfiler.collectGarbage');
+    heap = await page.metrics();
+
+    recorded = await page.evaluate(() => window.__frameTiming);
+  } finally {
+    await page.close();
+  }
+
+  const growthSteps = recorded.events.filter(event => event.type === 'noscroll-show-more').map(event => event.detail);
+  const detailsResizes = recorded.events.filter(event => event.type === 'noscroll-details-resize').map(event => event.detail);
+  return {
+    duration: duration,
+    longTasks: recorded.longTasks.length,
+    longTaskTime: sum(recorded.longTasks),
+    layoutCount: after.LayoutCount - before.LayoutCount,
+    recalcStyleCount: after.RecalcStyleCount - before.RecalcStyleCount,
+    layoutTime: Math.round((after.LayoutDuration - before.LayoutDuration) * 1000),
+    scriptTime: Math.round((after.ScriptDuration - before.ScriptDuration) * 1000),
+    heapUsedKb: Math.round(heap.JSHeapUsedSize / 1024),
+    growthSteps: growthSteps.length,
+    growthStepRows: sum(growthSteps.map(step => step.rows)),
+    growthStepRenderTime: average(growthSteps.map(step => step.renderTime)),
+    growthStepLayoutTime: average(growthSteps.map(step => step.layoutTime || 0)),
+    detailsResizes: detailsResizes.length,
+    detailsResizeTime: average(detailsResizes.map(resize => resize.time))
+  };
+}
+
+async function main() {
+  const browser = await puppeteer.launch({ headless: true, args: ['--enable-precise-memory-info'] });
+  const report = { date: new Date().toISOString(), url: options.url, runs: Number(options.runs), scenarios: {} };
+  try {
+    for(const scenario of scenarios) {
+      const results = [];
+      try {
+        for(let run = 0; run < report.runs; run++) {
+          results.push(await runScenario(browser, scenario));
+        }
+      } catch(error) {
+        // failed scenario is reported and the remaining ones are still run
+        console.error('Scenario ' + scenario.name + ' failed: ' + error.message);
+        report.scenarios[scenario.name] = { error: error.message };
+        process.exitCode = 1;
+        continue;
+      }
+      // median of each value over runs
+      report.scenarios[scenario.name] = {};
+      Object.keys(results[0]).forEach(key => {
+        report.scenarios[scenario.name][key] = median(results.map(result => result[key]));
+      });
+    }
+  } finally {
+    await browser.close();
+  }
+
+  fs.mkdirSync(options.out, { recursive: true });
+  const file = path.join(options.out, 'report-' + report.date.replace(/[:.]/g, '-') + '.json');
+  fs.writeFileSync(file, JSON.stringify(report, null, 2));
+  printReport(report, options.baseline ? JSON.parse(fs.readFileSync(options.baseline, 'utf8')) : null);
+  console.log('Report written to ' + file);
+}
+
+function printReport(report, baseline) {
+  Object.keys(report.scenarios).forEach(name => {
+    console.log('\n' + name);
+    const values = report.scenarios[name];
+    const baselineValues = baseline && baseline.scenarios[name];
+    Object.keys(values).forEach(key => {
+      let line = '  ' + key.padEnd(24) + String(values[key]).padStart(10);
+      if(baselineValues && typeof values[key] === 'number' && typeof baselineValues[key] === 'number') {
+        const change = values[key] - baselineValues[key];
+        line += String((change >= 0 ? '+' : '') + Math.round(change * 100) / 100).padStart(12);
+      }
+      console.log(line);
+    });
+  });
+}
+
+function parseArguments(args, defaults) {
+  const parsed = Object.assign({}, defaults);
+  for(let i = 0; i < args.length; i += 2) {
+    parsed[args[i].replace(/^--/, '')] = args[i + 1];
+  }
+  return parsed;
+}
+
+function sum(values) {
+  return Math.round(values.reduce((total, value) => total + value, 0));
+}
+
+function average(values) {
+  return values.length === 0 ? 0 : Math.round(sum(values) / values.length);
+}
+
+function median(values) {
+  const sorted = values.slice().sort((a, b) => a - b);
+  return sorted[Math.floor(sorted.length / 2)];
+}
+
+main().catch(error => {
+  console.error(error);
+  process.exit(1);
+});
@@ -21,6 +21,9 @@ import com.vaadin.flow.router.Route;
 public class DetailsDemoView extends VerticalLayout {
 
     private Div content;
+    private NoScrollGrid<Item> grid;
+    private List<Item> items;
+    private boolean allDetailsVisible;
 
     public DetailsDemoView() {
         setSizeFull();
@@ -35,6 +38,12 @@ public class DetailsDemoView extends VerticalLayout {
         Button r100Btn = new Button("100 rows");
         navLayout.add(r100Btn);
         r100Btn.addClickListener(event -> buildGrid(100));
+        Button allDetailsBtn = new Button("Toggle all details");
+        navLayout.add(allDetailsBtn);
+        allDetailsBtn.addClickListener(event -> {
+            allDetailsVisible = !allDetailsVisible;
+            grid.setDetailsVisible(items, allDetailsVisible);
+        });
         Span info = new Span("Click row to expand details");
         navLayout.add(info);
 
@@ -53,7 +62,8 @@ public class DetailsDemoView extends VerticalLayout {
     private void buildGrid(int rows) {
         content.removeAll();
 
-        NoScrollGrid<Item> grid = new NoScrollGrid<>();
+        grid = new NoScrollGrid<>();
+        allDetailsVisible = false;
         content.add(grid);
 
         grid.setShowMoreOnScrollToBottom(content.getElement());
@@ -79,7 +89,8 @@ public class DetailsDemoView extends VerticalLayout {
                     return layout;
                 }));
 
-        grid.setItems(generateDummyItems(rows));
+        items = generateDummyItems(rows);
+        grid.setItems(items);
     }
 
     private List<Item> generateDummyItems(int count) {
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.componentfactory;
+
+import java.io.Serializable;
+
+/**
+ * Range of items kept active on server for a {@link NoScrollGrid} with
+ * {@link NoScrollGrid#setMaxActiveItems(int)} or
+ * {@link NoScrollGrid#setColumnVirtualization(boolean)}. Requested range is
+ * limited to whole pages around the rows rendered in browser, so rendered rows
+ * always stay active and pages far from them are passivated.
+ * 
+ * @author Vaadin Ltd
+ */
+final class ActiveRange implements Serializable {
+
+	private final int start;
+	private final int length;
+
+	private ActiveRange(int start, int length) {
+		this.start = start;
+		this.length = length;
+	}
+
+	/**
+	 * Limits requested range to at most given number of items, rounded down to
+	 * whole pages but at least one page. Requested pages covering the rendered
+	 * rows are always kept, even when they alone exceed the limit, because
+	 * browser would request them again right away. Remaining pages are taken
+	 * evenly around them within the requested range.
+	 * 
+	 * @param start          first requested index
+	 * @param length         number of requested items
+	 * @param renderedStart  index of the first rendered row
+	 * @param renderedLength number of rendered rows
+	 * @param pageSize       page size of the grid
+	 * @param maxItems       maximum number of active items, zero for no limit
+	 * @return the limited range
+	 */
+	static ActiveRange limit(int start, int length, int renderedStart, int renderedLength, int pageSize,
+			int maxItems) {
+		if (maxItems <= 0 || length <= maxItems) {
+			return new ActiveRange(start, length);
+		}
+		int maxPages = Math.max(1, maxItems / pageSize);
+		int firstPage = start / pageSize;
+		int lastPage = (start + length - 1) / pageSize;
+		int renderedFirstPage = Math.max(firstPage, renderedStart / pageSize);
+		int renderedLastPage = Math.min(lastPage, (renderedStart + Math.max(1, renderedLength) - 1) / pageSize);
+		if (renderedFirstPage <= renderedLastPage && renderedLastPage - renderedFirstPage + 1 >= maxPages) {
+			return new ActiveRange(renderedFirstPage * pageSize, (renderedLastPage - renderedFirstPage + 1) * pageSize);
+		}
+		int renderedPages = Math.max(1, renderedLastPage - renderedFirstPage + 1);
+		int startPage = Math.min(renderedFirstPage, lastPage) - (maxPages - renderedPages) / 2;
+		startPage = Math.max(firstPage, Math.min(startPage, lastPage - maxPages + 1));
+		return new ActiveRange(startPage * pageSize, maxPages * pageSize);
+	}
+
+	int getStart() {
+		return start;
+	}
+
+	int getLength() {
+		return length;
+	}
+}
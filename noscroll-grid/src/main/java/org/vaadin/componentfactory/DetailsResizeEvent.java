@@ -0,0 +1,90 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.componentfactory;
+
+import com.vaadin.flow.component.ComponentEvent;
+import com.vaadin.flow.component.DomEvent;
+import com.vaadin.flow.component.EventData;
+import com.vaadin.flow.component.grid.Grid;
+
+/**
+ * Event fired when {@link NoScrollGrid} or {@link NoScrollTreeGrid} has
+ * adjusted its height to opened or closed item details. Details changes made
+ * before the next render in browser, for example with
+ * {@link NoScrollGrid#setDetailsVisible(java.util.Collection, boolean)}, are
+ * adjusted together and reported as one event.
+ * 
+ * @author Vaadin Ltd
+ * 
+ * @param <T> the grid bean type
+ */
+@DomEvent("noscroll-details-resize")
+public class DetailsResizeEvent<T> extends ComponentEvent<Grid<T>> {
+
+	private final int changes;
+	private final int heightChange;
+	private final long time;
+
+	/**
+	 * Creates a new details resize event.
+	 * 
+	 * @param source       the component that fired the event
+	 * @param fromClient   <code>true</code> if the event was originally fired on
+	 *                     the client, <code>false</code> if the event originates
+	 *                     from server-side logic
+	 * @param changes      number of details changes adjusted together
+	 * @param heightChange pixels grid height changed by
+	 * @param time         milliseconds from the first details change to adjusted
+	 *                     height being rendered
+	 */
+	public DetailsResizeEvent(Grid<T> source, boolean fromClient,
+			@EventData("event.detail.changes") int changes,
+			@EventData("event.detail.delta") int heightChange,
+			@EventData("event.detail.time") long time) {
+		super(source, fromClient);
+		this.changes = changes;
+		this.heightChange = heightChange;
+		this.time = time;
+	}
+
+	/**
+	 * Gets number of details changes adjusted together.
+	 * 
+	 * @return number of changes
+	 */
+	public int getChanges() {
+		return changes;
+	}
+
+	/**
+	 * Gets change of grid height. Negative when details were closed.
+	 * 
+	 * @return height change in pixels
+	 */
+	public int getHeightChange() {
+		return heightChange;
+	}
+
+	/**
+	 * Gets time from the first details change to the adjusted height being
+	 * rendered.
+	 * 
+	 * @return time in milliseconds
+	 */
+	public long getTime() {
+		return time;
+	}
+}
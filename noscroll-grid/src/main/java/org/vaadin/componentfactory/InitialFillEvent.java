@@ -0,0 +1,62 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.componentfactory;
+
+import com.vaadin.flow.component.ComponentEvent;
+import com.vaadin.flow.component.DomEvent;
+import com.vaadin.flow.component.EventData;
+import com.vaadin.flow.component.grid.Grid;
+
+/**
+ * Event fired when {@link NoScrollGrid} or {@link NoScrollTreeGrid} has
+ * initially shown more rows to fill the viewport of the target scroll
+ * container. Fired again after height is reset by a data change.
+ * 
+ * @author Vaadin Ltd
+ * 
+ * @param <T> the grid bean type
+ */
+@DomEvent("noscroll-initial-fill")
+public class InitialFillEvent<T> extends ComponentEvent<Grid<T>> {
+
+	private final long time;
+
+	/**
+	 * Creates a new initial fill event.
+	 * 
+	 * @param source     the component that fired the event
+	 * @param fromClient <code>true</code> if the event was originally fired on the
+	 *                   client, <code>false</code> if the event originates from
+	 *                   server-side logic
+	 * @param time       milliseconds from setting the target scroll container to
+	 *                   full viewport
+	 */
+	public InitialFillEvent(Grid<T> source, boolean fromClient,
+			@EventData("event.detail.time") long time) {
+		super(source, fromClient);
+		this.time = time;
+	}
+
+	/**
+	 * Gets time from setting the target scroll container, or from height reset,
+	 * to rows being rendered to fill the viewport.
+	 * 
+	 * @return time in milliseconds
+	 */
+	public long getTime() {
+		return time;
+	}
+}
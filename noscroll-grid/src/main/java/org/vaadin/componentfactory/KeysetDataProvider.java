@@ -0,0 +1,163 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.componentfactory;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.vaadin.flow.data.provider.AbstractBackEndDataProvider;
+import com.vaadin.flow.data.provider.CallbackDataProvider.CountCallback;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.function.ValueProvider;
+
+/**
+ * Back end data provider that pages with keys instead of offsets when
+ * {@link NoScrollGrid} shows more rows at the bottom. Key of the last item of
+ * each fetched page is remembered. When the next query starts right after that
+ * page, the key is passed with {@link KeysetQuery#getAfterKey()}, so the back
+ * end can seek directly to the next page. Offset is used when the query does not
+ * continue a fetched page, for example when user jumped or when sort order or
+ * filter changed.
+ * <p>
+ * Remembered keys are cleared with {@link #refreshAll()}. Use one instance per
+ * grid, because keys are tracked by offsets of the queries.
+ * </p>
+ * 
+ * @author Vaadin Ltd
+ * 
+ * @param <T> the bean type
+ * @param <K> the key type, unique and ordered in the sort order of the query
+ * @param <F> the filter type
+ */
+public class KeysetDataProvider<T, K, F> extends AbstractBackEndDataProvider<T, F> {
+
+	/**
+	 * Callback for fetching a page of items with a {@link KeysetQuery}.
+	 * 
+	 * @param <T> the bean type
+	 * @param <K> the key type
+	 * @param <F> the filter type
+	 */
+	@FunctionalInterface
+	public interface KeysetFetchCallback<T, K, F> extends Serializable {
+
+		/**
+		 * Fetches a page of items.
+		 * 
+		 * @param query the query, with key of the previous page when available
+		 * @return stream of items, not more than {@link Query#getLimit()}
+		 */
+		Stream<T> fetch(KeysetQuery<T, K, F> query);
+	}
+
+	/**
+	 * Maximum number of remembered page ends. Growth only needs the latest one,
+	 * few more keep keys usable when pages are requested out of order.
+	 */
+	private static final int MAX_CURSORS = 16;
+
+	private final KeysetFetchCallback<T, K, F> fetchCallback;
+	private final CountCallback<T, F> countCallback;
+	private final ValueProvider<T, K> keyProvider;
+
+	private final Map<Integer, K> cursors = new LinkedHashMap<Integer, K>() {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, K> eldest) {
+			return size() > MAX_CURSORS;
+		}
+	};
+	private List<String> cursorSortOrders;
+	private F cursorFilter;
+
+	/**
+	 * Creates keyset data provider.
+	 * 
+	 * @param fetchCallback function that returns a page of items for a query, not
+	 *                      <code>null</code>
+	 * @param countCallback function that returns number of items for a query, not
+	 *                      <code>null</code>
+	 * @param keyProvider   function that returns the key of an item, not
+	 *                      <code>null</code>
+	 */
+	public KeysetDataProvider(KeysetFetchCallback<T, K, F> fetchCallback, CountCallback<T, F> countCallback,
+			ValueProvider<T, K> keyProvider) {
+		this.fetchCallback = Objects.requireNonNull(fetchCallback, "Fetch callback can not be null");
+		this.countCallback = Objects.requireNonNull(countCallback, "Count callback can not be null");
+		this.keyProvider = Objects.requireNonNull(keyProvider, "Key provider can not be null");
+	}
+
+	/**
+	 * Creates keyset data provider without count. Use with
+	 * {@link com.vaadin.flow.component.grid.GridLazyDataView#setItemCountUnknown()}.
+	 * 
+	 * @param fetchCallback function that returns a page of items for a query, not
+	 *                      <code>null</code>
+	 * @param keyProvider   function that returns the key of an item, not
+	 *                      <code>null</code>
+	 */
+	public KeysetDataProvider(KeysetFetchCallback<T, K, F> fetchCallback, ValueProvider<T, K> keyProvider) {
+		this(fetchCallback, query -> {
+			throw new IllegalStateException(KeysetDataProvider.class.getSimpleName()
+					+ " was created without count callback. Set item count unknown for the component.");
+		}, keyProvider);
+	}
+
+	@Override
+	protected Stream<T> fetchFromBackEnd(Query<T, F> query) {
+		K afterKey;
+		synchronized (cursors) {
+			resetCursorsIfChanged(query);
+			afterKey = query.getOffset() > 0 ? cursors.get(query.getOffset()) : null;
+		}
+		List<T> items = fetchCallback.fetch(new KeysetQuery<>(query, afterKey)).collect(Collectors.toList());
+		if (items.size() == query.getLimit()) {
+			synchronized (cursors) {
+				cursors.put(query.getOffset() + items.size(), keyProvider.apply(items.get(items.size() - 1)));
+			}
+		}
+		return items.stream();
+	}
+
+	@Override
+	protected int sizeInBackEnd(Query<T, F> query) {
+		return countCallback.count(query);
+	}
+
+	@Override
+	public void refreshAll() {
+		synchronized (cursors) {
+			cursors.clear();
+		}
+		super.refreshAll();
+	}
+
+	private void resetCursorsIfChanged(Query<T, F> query) {
+		List<String> sortOrders = new ArrayList<>();
+		query.getSortOrders().forEach(order -> sortOrders.add(order.getSorted() + " " + order.getDirection()));
+		F filter = query.getFilter().orElse(null);
+		if (!sortOrders.equals(cursorSortOrders) || !Objects.equals(filter, cursorFilter)) {
+			cursors.clear();
+			cursorSortOrders = sortOrders;
+			cursorFilter = filter;
+		}
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.componentfactory;
+
+import java.util.Optional;
+
+import com.vaadin.flow.data.provider.Query;
+
+/**
+ * {@link Query} of {@link KeysetDataProvider}. When the previous page ended
+ * right before this query, the query carries the key of the last item of that
+ * page. Back end can then seek to items after the key instead of skipping
+ * {@link #getOffset()} items.
+ * 
+ * @author Vaadin Ltd
+ * 
+ * @param <T> the bean type
+ * @param <K> the key type
+ * @param <F> the filter type
+ */
+public class KeysetQuery<T, K, F> extends Query<T, F> {
+
+	private final K afterKey;
+
+	/**
+	 * Creates keyset query from given query.
+	 * 
+	 * @param query    the original query, not <code>null</code>
+	 * @param afterKey key of the item right before the first requested item, or
+	 *                 <code>null</code> to use offset
+	 */
+	public KeysetQuery(Query<T, F> query, K afterKey) {
+		super(query.getOffset(), query.getLimit(), query.getSortOrders(), query.getInMemorySorting(),
+				query.getFilter().orElse(null));
+		this.afterKey = afterKey;
+	}
+
+	/**
+	 * Gets key of the item right before the first requested item. Items should be
+	 * fetched from the back end starting after this key in the current sort order,
+	 * ignoring the offset. Empty when the query does not continue from the
+	 * previous page, for example when user jumped or sorting changed. Offset is
+	 * then used instead.
+	 * 
+	 * @return key of the last item of the previous page, or empty
+	 */
+	public Optional<K> getAfterKey() {
+		return Optional.ofNullable(afterKey);
+	}
+}
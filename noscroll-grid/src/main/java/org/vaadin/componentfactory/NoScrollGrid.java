@@ -15,16 +15,36 @@
  */
 package org.vaadin.componentfactory;
 
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
+import com.vaadin.flow.component.ClientCallable;
+import com.vaadin.flow.component.ComponentEventListener;
 import com.vaadin.flow.component.dependency.CssImport;
 import com.vaadin.flow.component.dependency.JsModule;
 import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.grid.GridLazyDataView;
+import com.vaadin.flow.data.provider.CallbackDataProvider;
+import com.vaadin.flow.data.provider.DataChangeEvent;
 import com.vaadin.flow.data.provider.DataChangeEvent.DataRefreshEvent;
 import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.dom.DisabledUpdateMode;
 import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.function.SerializableFunction;
+import com.vaadin.flow.function.ValueProvider;
 import com.vaadin.flow.shared.Registration;
 
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+
 /**
  * {@link Grid} with disabled vertical scrolling and option to delegate
  * scrolling to any element via {@link #setShowMoreOnScrollToBottom(Element)}.
@@ -45,8 +65,9 @@ import com.vaadin.flow.shared.Registration;
  * <p>
  * Initial height set with
  * {@link #setHeight(String)}/{@link #setSizeFull()}/{@link #setHeightFull()} is
- * always reverted back when data provider changes its items by
- * filtering/adding/removing.
+ * reverted back when data provider changes its items by
+ * filtering/adding/removing, unless grown height is kept with
+ * {@link #setKeepHeightOnDataChange(boolean)}.
  * </p>
  * 
  * @author Vaadin Ltd
@@ -57,8 +78,20 @@ import com.vaadin.flow.shared.Registration;
 @CssImport("./noscroll-grid-spinner.css")
 public class NoScrollGrid<T> extends Grid<T> {
 
-	private Registration dataProviderListener;
-	private Element targetScrollContainer;
+	private final NoScrollGridSupport<T> support = new NoScrollGridSupport<>(this);
+	private SerializableFunction<T, Integer> itemIndexProvider;
+	private int maxRenderedRows;
+	private int maxActiveItems;
+	private NoScrollGridFeed<T> feed;
+	private boolean columnVirtualization;
+	private Set<String> visibleColumnIds;
+	private int nextColumnId;
+	private RowValueCache rowCache;
+	private ValueProvider<T, ?> rowVersionProvider;
+	private boolean preserveScrollState;
+	private ScrollState scrollState;
+	private double timingSampleRate;
+	private int timingReportInterval;
 	
 	/**
 	 * When showMoreOnInit is true, grid height will be adjusted initially to show
@@ -82,8 +115,7 @@ public class NoScrollGrid<T> extends Grid<T> {
 	 */
 	public NoScrollGrid(int pageSize) {
 		super(pageSize);
-		addClassName("show-spinner");
-		setRowsShownMoreOnScrollToBottom(getPageSize());
+		support.initPageSize();
 	}
 
 	/**
@@ -110,11 +142,28 @@ public class NoScrollGrid<T> extends Grid<T> {
 	@Override
 	protected void initConnector() {
 		super.initConnector();
-		getUI().orElseThrow(() -> new IllegalStateException(
-				"Connector can only be initialized for an attached Grid"))
-		.getPage()
-		.executeJs("window.Vaadin.Flow.noscrollGridConnector.initLazy($0,$1,$2)",
-				getElement(), getPageSize(), showMoreOnInit);
+		support.initConnector(showMoreOnInit);
+		// browser element is created again when grid is attached again
+		if(maxActiveItems > 0) {
+			getElement().callJsFunction("setMaxActiveItems", maxActiveItems);
+		}
+		if(getMaxRenderedRows() > 0) {
+			updateMaxRenderedRows();
+		}
+		if(columnVirtualization) {
+			// all columns are generated until the new connector reports columns in view
+			visibleColumnIds = null;
+			getElement().callJsFunction("setColumnVirtualization", true);
+		}
+		if(timingSampleRate > 0) {
+			getElement().callJsFunction("setTimingTelemetry", timingSampleRate, timingReportInterval);
+		}
+		if(preserveScrollState) {
+			getElement().callJsFunction("setPreserveScrollState", true);
+			if(support.getTargetScrollContainer() != null && scrollState != null) {
+				restoreScrollState();
+			}
+		}
 	}
 	
 	/**
@@ -122,15 +171,273 @@ public class NoScrollGrid<T> extends Grid<T> {
 	 */
 	@Override
 	public void setDataProvider(DataProvider<T, ?> dataProvider) {
-		if(dataProviderListener != null) {
-			dataProviderListener.remove();
+		if(feed != null && !feed.isSourceOf(dataProvider)) {
+			feed.close();
+			feed = null;
+		}
+		super.setDataProvider(support.timeFetches(dataProvider));
+		if(rowCache != null) {
+			rowCache.clear();
+		}
+		scrollState = null;
+		support.listenDataProvider(dataProvider, event -> updateRowCache(dataProvider, event), () -> scrollState = null);
+	}
+	
+	/**
+	 * Gets the data provider that was set, also when its fetches are timed for
+	 * {@link #getMetrics()}.
+	 * 
+	 * @see com.vaadin.flow.component.grid.Grid#getDataProvider()
+	 */
+	@Override
+	public DataProvider<T, ?> getDataProvider() {
+		return support.unwrap(super.getDataProvider());
+	}
+	
+	/**
+	 * Sets fetch callback without item count. Data provider is never asked to
+	 * count the items. Grid keeps showing more rows until a fetch returns less
+	 * items than requested. Item count estimate is set to two pages and it grows
+	 * by one page at a time, so at most one page of empty rows is shown before the
+	 * end of data is found.
+	 * 
+	 * @param fetchCallback function that returns a stream of items from the back
+	 *                      end for a query
+	 * @return LazyDataView instance for further configuration
+	 */
+	public GridLazyDataView<T> setItemsWithoutCount(CallbackDataProvider.FetchCallback<T, Void> fetchCallback) {
+		Objects.requireNonNull(fetchCallback, getClass().getSimpleName()
+				+ ".setItemsWithoutCount(fetchCallback) requires non-null fetch callback");
+		// item count is unknown when items are set without count callback
+		GridLazyDataView<T> dataView = setItems(fetchCallback);
+		dataView.setItemCountEstimate(getPageSize() * 2);
+		dataView.setItemCountEstimateIncrease(getPageSize());
+		return dataView;
+	}
+	
+	/**
+	 * Set maximum number of rows whose column values are cached. When grid
+	 * refills after height reset, re-attach or column coming into view, values of
+	 * rows that have not changed are taken from the cache instead of calling value
+	 * providers again. Least recently used rows are dropped first. Zero (default)
+	 * disables the cache.
+	 * <p>
+	 * Rows are cached by item id of the data provider. Without
+	 * {@link #setRowCacheVersionProvider(ValueProvider)} the whole cache is
+	 * cleared when data provider changes its items, and single rows when they are
+	 * refreshed.
+	 * </p>
+	 * <p>
+	 * Applies to columns added with {@link #addColumn(ValueProvider)} and by
+	 * property name. Hits and misses are available from {@link #getMetrics()}.
+	 * </p>
+	 * 
+	 * @param rows maximum number of cached rows, or zero to disable
+	 */
+	public void setRowCacheSize(int rows) {
+		if(rows<0) {
+			throw new IllegalArgumentException(getClass().getSimpleName()
+					+ ".setRowCacheSize(rows) requires zero or positive integer for 'rows'");
+		}
+		rowCache = rows > 0 ? new RowValueCache(rows) : null;
+		if(support.hasMetrics()) {
+			support.getMetrics().setRowCache(rowCache);
+		}
+	}
+	
+	/**
+	 * Set function that returns version of an item, for example a version column
+	 * of an entity. Cached row values are used only while the version stays the
+	 * same, so the cache is kept when data provider changes its items.
+	 * 
+	 * @param versionProvider function returning version of an item, or
+	 *                        <code>null</code> to clear the cache on data changes
+	 * @see #setRowCacheSize(int)
+	 */
+	public void setRowCacheVersionProvider(ValueProvider<T, ?> versionProvider) {
+		this.rowVersionProvider = versionProvider;
+		if(rowCache != null) {
+			rowCache.clear();
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	private void updateRowCache(DataProvider<T, ?> dataProvider, DataChangeEvent<T> event) {
+		if(rowCache == null) {
+			return;
+		}
+		if(event instanceof DataRefreshEvent) {
+			rowCache.remove(dataProvider.getId(((DataRefreshEvent<T>) event).getItem()));
+		} else if(rowVersionProvider == null) {
+			rowCache.clear();
+		}
+	}
+	
+	private Object getColumnValue(T item, String columnId, ValueProvider<T, ?> valueProvider) {
+		if(!isColumnInView(columnId)) {
+			return null;
+		}
+		if(rowCache == null) {
+			return valueProvider.apply(item);
+		}
+		Object version = rowVersionProvider != null ? rowVersionProvider.apply(item) : null;
+		return rowCache.get(getDataProvider().getId(item), version, columnId, () -> valueProvider.apply(item));
+	}
+	
+	/**
+	 * Sets fetch callback that receives names of the properties rendered by
+	 * visible columns with each query. Property name of a column is its key, which
+	 * is set for columns added by property name and can be set with
+	 * {@link Column#setKey(String)}. Back end can then load only those properties
+	 * for each page.
+	 * <p>
+	 * Rows already in browser are not fetched again when columns are shown or
+	 * hidden. Call {@link DataProvider#refreshAll()} after making a column
+	 * visible, so rows get values of the new column.
+	 * </p>
+	 * 
+	 * @param fetchCallback function that returns a stream of items from the back
+	 *                      end for a projection query, not <code>null</code>
+	 * @param countCallback function that returns number of items in the back end
+	 *                      for a query, not <code>null</code>
+	 * @return LazyDataView instance for further configuration
+	 * @see #getProjection()
+	 */
+	public GridLazyDataView<T> setItemsWithProjection(ProjectionQuery.ProjectionFetchCallback<T, Void> fetchCallback,
+			CallbackDataProvider.CountCallback<T, Void> countCallback) {
+		Objects.requireNonNull(fetchCallback, getClass().getSimpleName()
+				+ ".setItemsWithProjection(fetchCallback, countCallback) requires non-null fetch callback");
+		Objects.requireNonNull(countCallback, getClass().getSimpleName()
+				+ ".setItemsWithProjection(fetchCallback, countCallback) requires non-null count callback");
+		return setItems(DataProvider.fromCallbacks(
+				query -> fetchCallback.fetch(new ProjectionQuery<>(query, getProjection())), countCallback));
+	}
+	
+	/**
+	 * Gets names of the properties rendered by visible columns, in column order.
+	 * Columns without key are left out. Can be used in any back end data provider
+	 * to load only the needed properties.
+	 * 
+	 * @return set of property names, never <code>null</code>
+	 * @see #setItemsWithProjection(ProjectionQuery.ProjectionFetchCallback,
+	 *      CallbackDataProvider.CountCallback)
+	 */
+	public Set<String> getProjection() {
+		Set<String> properties = new LinkedHashSet<>();
+		getColumns().stream()
+			.filter(Column::isVisible)
+			.map(Column::getKey)
+			.filter(Objects::nonNull)
+			.forEach(properties::add);
+		return properties;
+	}
+	
+	/**
+	 * Set whether grown height is kept when data provider changes its items by
+	 * filtering/adding/removing. By default (<code>false</code>) initial height is
+	 * reverted and rows are shown more again from the first row. When
+	 * <code>true</code>, grid keeps its height and only already requested rows
+	 * are fetched again. Height is reduced if there are less rows than fit in the
+	 * grid. Changes during one server round trip are combined, and browser waits
+	 * for a burst of changes to end before adjusting the height.
+	 * 
+	 * @param keepHeight <code>true</code> to keep grown height on data change
+	 */
+	public void setKeepHeightOnDataChange(boolean keepHeight) {
+		support.setKeepHeightOnDataChange(keepHeight);
+	}
+	
+	/**
+	 * Gets whether grown height is kept when data provider changes its items.
+	 * 
+	 * @return <code>true</code> if grown height is kept on data change
+	 * @see #setKeepHeightOnDataChange(boolean)
+	 */
+	public boolean isKeepHeightOnDataChange() {
+		return support.isKeepHeightOnDataChange();
+	}
+	
+	/**
+	 * Set whether grown height and scroll position are preserved when grid is
+	 * detached and attached again, for example when navigating to another view and
+	 * back with a preserved view instance. Browser saves grown height, scroll
+	 * position of the target scroll container and average row height to this
+	 * component after scrolling settles. When grid is attached again, height and
+	 * scroll position are restored as soon as the item count is known, before the
+	 * first rows are fetched, instead of showing more rows again from the first
+	 * row.
+	 * <p>
+	 * When the saved height has more rows than {@link #getMaxRenderedRows()}, or
+	 * two pages if it is zero, only a window of that many rows near the viewport
+	 * is rendered and fetched, as with {@link #setMaxRenderedRows(int)}. The
+	 * window is kept while grid grows further, until height is reset. Saved state
+	 * is discarded when data provider changes its items and height is reset.
+	 * Default is <code>false</code>.
+	 * </p>
+	 * 
+	 * @param preserveScrollState <code>true</code> to restore height and scroll
+	 *                            position after reattach
+	 */
+	public void setPreserveScrollState(boolean preserveScrollState) {
+		this.preserveScrollState = preserveScrollState;
+		if(!preserveScrollState) {
+			scrollState = null;
 		}
-		super.setDataProvider(dataProvider);
-		dataProviderListener = dataProvider.addDataProviderListener(event -> {
-            if (targetScrollContainer != null && !(event instanceof DataRefreshEvent)) {
-            	getElement().callJsFunction("resetHeight");
-            }
-        });
+		getElement().callJsFunction("setPreserveScrollState", preserveScrollState);
+	}
+	
+	/**
+	 * Gets whether grown height and scroll position are preserved when grid is
+	 * detached and attached again.
+	 * 
+	 * @return <code>true</code> if height and scroll position are restored after
+	 *         reattach
+	 * @see #setPreserveScrollState(boolean)
+	 */
+	public boolean isPreserveScrollState() {
+		return preserveScrollState;
+	}
+	
+	// disabled grid can still be scrolled
+	@ClientCallable(DisabledUpdateMode.ALWAYS)
+	private void saveScrollState(double height, double scrollTop, double rowHeight) {
+		if(preserveScrollState) {
+			scrollState = new ScrollState(height, scrollTop, rowHeight);
+		}
+	}
+	
+	private void restoreScrollState() {
+		int windowRows = getMaxRenderedRows() > 0 ? getMaxRenderedRows() : 2 * getPageSize();
+		getElement().callJsFunction("restoreScrollState", support.getTargetScrollContainer(), scrollState.height,
+				scrollState.scrollTop, scrollState.rowHeight, windowRows);
+	}
+	
+	/**
+	 * Creates append-only feed as the item source of this grid. Items offered to
+	 * the feed from any thread are appended to the grid in batches with server
+	 * push. Sets data provider and keeps grown height on data change. Limits
+	 * active items to {@value NoScrollGridFeed#DEFAULT_ACTIVE_PAGES} pages if no
+	 * limit is set, so each batch resends at most those rows. Both settings are
+	 * restored when the feed is closed by another feed or data provider. Previous
+	 * feed of this grid stops appending.
+	 * 
+	 * @param maxPendingItems maximum number of items waiting for the next batch
+	 *                        before feed signals back pressure, integer larger than
+	 *                        zero
+	 * @return the feed
+	 * @see NoScrollGridFeed
+	 */
+	public NoScrollGridFeed<T> createFeed(int maxPendingItems) {
+		if(maxPendingItems<1) {
+			throw new IllegalArgumentException(getClass().getSimpleName()
+					+ ".createFeed(maxPendingItems) requires integer larger than zero for 'maxPendingItems'");
+		}
+		if(feed != null) {
+			feed.close();
+			feed = null;
+		}
+		feed = new NoScrollGridFeed<>(this, maxPendingItems);
+		return feed;
 	}
 	
 	/**
@@ -139,7 +446,214 @@ public class NoScrollGrid<T> extends Grid<T> {
 	 * does not have more rows to show.
 	 */
 	public void showMore() {
-		getElement().callJsFunction("showMore");
+		support.showMore();
+	}
+	
+	/**
+	 * Adds listener for growth steps. Event is fired when rows shown more are
+	 * rendered in browser.
+	 * 
+	 * @param listener the listener to add, not <code>null</code>
+	 * @return a handle that can be used for removing the listener
+	 */
+	public Registration addShowMoreListener(ComponentEventListener<ShowMoreEvent<T>> listener) {
+		return support.addListener(ShowMoreEvent.class, listener);
+	}
+	
+	/**
+	 * Adds listener for initial fill. Event is fired when rows shown more initially
+	 * are rendered and viewport of the target scroll container is full.
+	 * 
+	 * @param listener the listener to add, not <code>null</code>
+	 * @return a handle that can be used for removing the listener
+	 */
+	public Registration addInitialFillListener(ComponentEventListener<InitialFillEvent<T>> listener) {
+		return support.addListener(InitialFillEvent.class, listener);
+	}
+	
+	/**
+	 * Adds listener for height adjustments to opened or closed item details.
+	 * 
+	 * @param listener the listener to add, not <code>null</code>
+	 * @return a handle that can be used for removing the listener
+	 */
+	public Registration addDetailsResizeListener(ComponentEventListener<DetailsResizeEvent<T>> listener) {
+		return support.addListener(DetailsResizeEvent.class, listener);
+	}
+	
+	/**
+	 * Set details visibility of given items. Items are sent to browser in one
+	 * update and grid height is adjusted once for all of them, instead of once
+	 * per item.
+	 * 
+	 * @param items   the items to show or hide details for, not
+	 *                <code>null</code>
+	 * @param visible <code>true</code> to show details, <code>false</code> to
+	 *                hide them
+	 * @see #setDetailsVisible(Object, boolean)
+	 */
+	public void setDetailsVisible(Collection<T> items, boolean visible) {
+		Objects.requireNonNull(items, getClass().getSimpleName()
+				+ ".setDetailsVisible(items, visible) requires non-null items");
+		// refreshed items are collected and sent together before client response
+		items.forEach(item -> setDetailsVisible(item, visible));
+	}
+	
+	/**
+	 * Gets growth statistics of this grid. Statistics are collected from the first
+	 * call of this method or {@link #bindMetrics(NoScrollGridMeterBinder)}.
+	 * 
+	 * @return metrics of this grid, never <code>null</code>
+	 */
+	public NoScrollGridMetrics getMetrics() {
+		if(!support.hasMetrics()) {
+			NoScrollGridMetrics metrics = support.getMetrics();
+			metrics.setRowCache(rowCache);
+			addTimingReportListener(metrics::record);
+		}
+		return support.getMetrics();
+	}
+	
+	/**
+	 * Binds growth statistics of this grid with given binder. For example to
+	 * register them to a Micrometer meter registry.
+	 * 
+	 * @param binder the binder, not <code>null</code>
+	 */
+	public void bindMetrics(NoScrollGridMeterBinder binder) {
+		support.bindMetrics(binder, this::getMetrics);
+	}
+	
+	/**
+	 * Set real-user timing telemetry. Browser measures growth steps, initial fill
+	 * and details resizes with User Timing API, so they show in browser
+	 * performance tools, and sends the sampled share of them to server in one
+	 * call per report interval. Reported timings are delivered to listeners added
+	 * with {@link #addTimingReportListener(ComponentEventListener)}. Zero sample
+	 * rate (default) disables reporting.
+	 * 
+	 * @param sampleRate     share of timings reported, between 0 and 1
+	 * @param reportInterval milliseconds between reports, at least 1000
+	 */
+	public void setTimingTelemetry(double sampleRate, int reportInterval) {
+		if(sampleRate<0 || sampleRate>1) {
+			throw new IllegalArgumentException(getClass().getSimpleName()
+					+ ".setTimingTelemetry(sampleRate, reportInterval) requires value between 0 and 1 for 'sampleRate'");
+		}
+		if(reportInterval<1000) {
+			throw new IllegalArgumentException(getClass().getSimpleName()
+					+ ".setTimingTelemetry(sampleRate, reportInterval) requires at least 1000 for 'reportInterval'");
+		}
+		timingSampleRate = sampleRate;
+		timingReportInterval = reportInterval;
+		getElement().callJsFunction("setTimingTelemetry", sampleRate, reportInterval);
+	}
+	
+	/**
+	 * Adds listener for real-user timings reported by browser.
+	 * 
+	 * @param listener the listener to add, not <code>null</code>
+	 * @return a handle that can be used for removing the listener
+	 * @see #setTimingTelemetry(double, int)
+	 */
+	public Registration addTimingReportListener(ComponentEventListener<TimingReportEvent<T>> listener) {
+		return support.addListener(TimingReportEvent.class, listener);
+	}
+	
+	// growth steps of a disabled grid are measured as well
+	@ClientCallable(DisabledUpdateMode.ALWAYS)
+	private void reportTimings(JsonArray timings) {
+		List<TimingReportEvent.Timing> reported = new ArrayList<>(timings.length());
+		for(int i = 0; i < timings.length(); i++) {
+			JsonObject timing = timings.getObject(i);
+			TimingReportEvent.TimingType type = TimingReportEvent.TimingType.forClientName(timing.getString("type"));
+			if(type == null) {
+				continue;
+			}
+			reported.add(new TimingReportEvent.Timing(type, (long) timing.getNumber("duration"),
+					timing.hasKey("rows") ? (int) timing.getNumber("rows") : -1,
+					timing.hasKey("fetchRoundTrip") ? (long) timing.getNumber("fetchRoundTrip") : -1,
+					timing.hasKey("changes") ? (int) timing.getNumber("changes") : -1));
+		}
+		if(!reported.isEmpty()) {
+			fireEvent(new TimingReportEvent<>(this, true, reported, getPageSize(), getDataProvider().getClass()));
+		}
+	}
+	
+	/**
+	 * Scrolls target scroll container to the row with given index. Rows between
+	 * the shown rows and the given row are not fetched. Grid height is estimated
+	 * from average row height and grid keeps only a window of rows rendered, like
+	 * with {@link #setMaxRenderedRows(int)}. If maximum number of rendered rows is
+	 * not set, it is set to twice the page size. Rows skipped over are fetched
+	 * when they are scrolled into view.
+	 * <p>
+	 * Without target scroll container this scrolls the grid like
+	 * {@link Grid#scrollToIndex(int)}. Unlike in {@link Grid}, negative index is
+	 * rejected.
+	 * </p>
+	 * 
+	 * @param rowIndex zero based index of the row
+	 * @throws IllegalArgumentException if given index is negative
+	 */
+	@Override
+	public void scrollToIndex(int rowIndex) {
+		if(rowIndex<0) {
+			throw new IllegalArgumentException(getClass().getSimpleName()
+					+ ".scrollToIndex(rowIndex) requires zero or positive integer for 'rowIndex'");
+		}
+		getElement().callJsFunction("showMoreToIndex", rowIndex);
+	}
+	
+	/**
+	 * Scrolls target scroll container to the row of given item. Index of the item
+	 * is found from list data view with its current filter and sort order. Back
+	 * end data provider requires
+	 * {@link #setItemIndexProvider(SerializableFunction)}.
+	 * 
+	 * @param item the item to scroll to, not <code>null</code>
+	 * @see #scrollToIndex(int)
+	 */
+	public void scrollToItem(T item) {
+		Objects.requireNonNull(item, getClass().getSimpleName()
+				+ ".scrollToItem(item) requires non-null item");
+		int index = itemIndexProvider != null ? itemIndexProvider.apply(item) : getInMemoryItemIndex(item);
+		if(index < 0) {
+			throw new IllegalArgumentException(getClass().getSimpleName()
+					+ ".scrollToItem(item) could not find given item from data provider");
+		}
+		scrollToIndex(index);
+	}
+	
+	/**
+	 * Set function that returns index of an item in current filter and sort order,
+	 * or negative number if item is not found. Needed for
+	 * {@link #scrollToItem(Object)} with back end data provider, where it is
+	 * usually cheaper to count preceding items in the back end than to fetch them.
+	 * 
+	 * @param itemIndexProvider function returning index of an item, or
+	 *                          <code>null</code> to find index from in-memory
+	 *                          data provider
+	 */
+	public void setItemIndexProvider(SerializableFunction<T, Integer> itemIndexProvider) {
+		this.itemIndexProvider = itemIndexProvider;
+	}
+	
+	private int getInMemoryItemIndex(T item) {
+		DataProvider<T, ?> dataProvider = getDataProvider();
+		if(!dataProvider.isInMemory()) {
+			throw new IllegalStateException(getClass().getSimpleName()
+					+ ".scrollToItem(item) requires item index provider for back end data provider. Set it with setItemIndexProvider(itemIndexProvider).");
+		}
+		Object id = dataProvider.getId(item);
+		// list data view applies both its filter and the sort order of the grid
+		Iterator<T> items = getListDataView().getItems().iterator();
+		for(int index = 0; items.hasNext(); index++) {
+			if(Objects.equals(id, dataProvider.getId(items.next()))) {
+				return index;
+			}
+		}
+		return -1;
 	}
 	
 	/**
@@ -148,11 +662,218 @@ public class NoScrollGrid<T> extends Grid<T> {
 	 * @param rows number of rows to show more
 	 */
 	public void setRowsShownMoreOnScrollToBottom(int rows) {
-		if(rows<1) {
+		support.setRowsShownMoreOnScrollToBottom(rows);
+	}
+	
+	/**
+	 * Set distance in pixels from the bottom of the grid where scrolling starts to
+	 * show more rows. Default is 30 pixels. Bottom of the grid is observed with
+	 * IntersectionObserver when browser supports it, otherwise scroll position of
+	 * target scroll container is checked once per animation frame.
+	 * 
+	 * @param pixels distance in pixels, zero or positive integer
+	 */
+	public void setShowMorePrefetchDistance(int pixels) {
+		support.setShowMorePrefetchDistance(pixels);
+	}
+	
+	/**
+	 * Set distance in rows from the bottom of the grid where scrolling starts to
+	 * show more rows. Pixel distance is calculated from the average row height of
+	 * the currently rendered rows.
+	 * 
+	 * @param rows distance in rows, integer larger than zero
+	 * @see #setShowMorePrefetchDistance(int)
+	 */
+	public void setShowMorePrefetchRows(int rows) {
+		support.setShowMorePrefetchRows(rows);
+	}
+	
+	/**
+	 * Set maximum number of rows prefetched ahead based on scroll velocity. Browser
+	 * measures how fast target scroll container is scrolled down and how long
+	 * fetching rows takes. Grid then shows more rows earlier, grows by more rows
+	 * and requests more pages at once, so fast scrolling does not reach rows that
+	 * are still loading. Slow scrolling prefetches less. Zero (default) disables
+	 * velocity based prefetch.
+	 * 
+	 * @param rows maximum number of rows prefetched on top of
+	 *             {@link #setRowsShownMoreOnScrollToBottom(int)}, or zero to
+	 *             disable
+	 */
+	public void setMaxPrefetchRows(int rows) {
+		support.setMaxPrefetchRows(rows);
+	}
+	
+	/**
+	 * Set maximum number of items kept active on server for this grid. Grid keeps
+	 * key mappings and generated data only for the latest range of items
+	 * requested by browser, and without a limit the range grows from the first
+	 * row to the last shown row. With a limit, each range requested by browser is
+	 * cut on server to whole pages around the rows rendered in browser, so server
+	 * memory stays flat however far user scrolls. Rows outside of the range are
+	 * fetched again when they come back into view. Zero (default) means no limit.
+	 * Limit below {@link #getPageSize()} is treated as one page.
+	 * <p>
+	 * Rendered rows are always kept active, so a limit implies a bounded window of
+	 * rendered rows. Maximum number of rendered rows is half of the limit, or the
+	 * value of {@link #setMaxRenderedRows(int)} if that is smaller.
+	 * </p>
+	 * 
+	 * @param items maximum number of active items, or zero for no limit
+	 */
+	public void setMaxActiveItems(int items) {
+		if(items<0) {
 			throw new IllegalArgumentException(getClass().getSimpleName()
-					+ ".setRowsShownMoreOnScrollToBottom(rows) requires integer larger than zero for 'rows'");
+					+ ".setMaxActiveItems(items) requires zero or positive integer for 'items'");
+		}
+		maxActiveItems = items;
+		getElement().callJsFunction("setMaxActiveItems", items);
+		updateMaxRenderedRows();
+	}
+	
+	/**
+	 * Gets maximum number of items kept active on server for this grid.
+	 * 
+	 * @return maximum number of active items, or zero for no limit
+	 * @see #setMaxActiveItems(int)
+	 */
+	public int getMaxActiveItems() {
+		return maxActiveItems;
+	}
+	
+	// disabled grid still scrolls and fetches rows
+	@ClientCallable(DisabledUpdateMode.ALWAYS)
+	private void setActiveRange(int start, int length, int renderedStart, int renderedLength) {
+		ActiveRange range = ActiveRange.limit(start, length, renderedStart, renderedLength, getPageSize(),
+				getActiveItemLimit());
+		getDataCommunicator().setRequestedRange(range.getStart(), range.getLength());
+	}
+	
+	private int getActiveItemLimit() {
+		// with column virtualization only pages of rendered rows are kept active,
+		// so columns that come into view are sent only for them
+		return maxActiveItems <= 0 && columnVirtualization ? getPageSize() : maxActiveItems;
+	}
+	
+	/**
+	 * Set maximum number of rows rendered in browser at once. When grid has grown
+	 * beyond this, its height is kept fixed and only a window of rows near the
+	 * viewport of the target scroll container is rendered. Rows outside of the
+	 * window are replaced by empty space, so scroll container's scroll height stays
+	 * the same. Zero (default) disables the window and all shown rows are rendered,
+	 * unless {@link #setMaxActiveItems(int)} implies a window.
+	 * 
+	 * @param rows maximum number of rendered rows, or zero to render all rows
+	 */
+	public void setMaxRenderedRows(int rows) {
+		if(rows<0) {
+			throw new IllegalArgumentException(getClass().getSimpleName()
+					+ ".setMaxRenderedRows(rows) requires zero or positive integer for 'rows'");
+		}
+		maxRenderedRows = rows;
+		updateMaxRenderedRows();
+	}
+	
+	/**
+	 * Gets maximum number of rows rendered in browser at once, including the
+	 * window implied by {@link #setMaxActiveItems(int)}.
+	 * 
+	 * @return maximum number of rendered rows, or zero if all rows are rendered
+	 * @see #setMaxRenderedRows(int)
+	 */
+	public int getMaxRenderedRows() {
+		if(maxActiveItems <= 0) {
+			return maxRenderedRows;
+		}
+		int activeWindowRows = Math.max(1, maxActiveItems / 2);
+		return maxRenderedRows > 0 ? Math.min(maxRenderedRows, activeWindowRows) : activeWindowRows;
+	}
+	
+	private void updateMaxRenderedRows() {
+		getElement().callJsFunction("setMaxRenderedRows", getMaxRenderedRows());
+	}
+	
+	/**
+	 * Set whether values are generated only for columns near the horizontal
+	 * viewport of the grid. Browser reports which columns are in view when grid is
+	 * scrolled horizontally or resized. Cells of other columns are sent empty, so
+	 * value providers of columns out of view are not called for the rows shown
+	 * more. Useful for very wide grids with many columns. Default is
+	 * <code>false</code>.
+	 * <p>
+	 * When columns come into view, rows are sent again only for the pages of the
+	 * rows rendered in browser. Unless {@link #setMaxActiveItems(int)} is set,
+	 * only those pages are kept active on server in this mode, and other rows are
+	 * fetched again when they are scrolled into view.
+	 * </p>
+	 * <p>
+	 * Applies to columns added with {@link #addColumn(ValueProvider)} and by
+	 * property name. Columns with other renderers are always generated. Columns
+	 * should have fixed width, so that scroll width of the grid does not depend on
+	 * cell content.
+	 * </p>
+	 * 
+	 * @param columnVirtualization <code>true</code> to generate only columns in
+	 *                             view, <code>false</code> to generate all columns
+	 */
+	public void setColumnVirtualization(boolean columnVirtualization) {
+		this.columnVirtualization = columnVirtualization;
+		visibleColumnIds = null;
+		getElement().callJsFunction("setColumnVirtualization", columnVirtualization);
+	}
+	
+	/**
+	 * Gets whether values are generated only for columns near the horizontal
+	 * viewport of the grid.
+	 * 
+	 * @return <code>true</code> if only columns in view are generated
+	 * @see #setColumnVirtualization(boolean)
+	 */
+	public boolean isColumnVirtualization() {
+		return columnVirtualization;
+	}
+	
+	/**
+	 * @see com.vaadin.flow.component.grid.Grid#addColumn(ValueProvider)
+	 */
+	@Override
+	public Column<T> addColumn(ValueProvider<T, ?> valueProvider) {
+		String columnId = String.valueOf(nextColumnId++);
+		Column<T> column = super.addColumn(item -> getColumnValue(item, columnId, valueProvider));
+		column.getElement().setAttribute("noscroll-column", columnId);
+		// in-memory sorting compares real values, also for columns out of view
+		boolean sortable = column.isSortable();
+		column.setComparator((item1, item2) -> compareValues(valueProvider.apply(item1), valueProvider.apply(item2)));
+		column.setSortable(sortable);
+		return column;
+	}
+	
+	private boolean isColumnInView(String columnId) {
+		return !columnVirtualization || visibleColumnIds == null || visibleColumnIds.contains(columnId);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static int compareValues(Object value1, Object value2) {
+		if(value1 == null || value2 == null) {
+			return value1 == value2 ? 0 : (value1 == null ? -1 : 1);
+		}
+		if(value1 instanceof Comparable && value1.getClass().isInstance(value2)) {
+			return ((Comparable<Object>) value1).compareTo(value2);
+		}
+		return value1.toString().compareTo(value2.toString());
+	}
+	
+	// disabled grid can still be scrolled horizontally
+	@ClientCallable(DisabledUpdateMode.ALWAYS)
+	private void setVisibleColumns(String columnIds) {
+		Set<String> ids = new HashSet<>(Arrays.asList(columnIds.split(",")));
+		boolean columnsAdded = visibleColumnIds != null && !visibleColumnIds.containsAll(ids);
+		visibleColumnIds = ids;
+		if(columnVirtualization && columnsAdded) {
+			// active rows have empty cells for columns that came into view
+			getDataCommunicator().reset();
 		}
-		getElement().callJsFunction("setRowsShownMoreOnScrollToBottom", rows);
 	}
 	
 	/**
@@ -165,10 +886,15 @@ public class NoScrollGrid<T> extends Grid<T> {
 	 *                              body or div.
 	 */
 	public void setShowMoreOnScrollToBottom(Element targetScrollContainer) {
-		Objects.requireNonNull(targetScrollContainer, getClass().getSimpleName()
-				+ ".setShowMoreOnScrollToBottom(targetScrollContainer) requires non-null target element. One target scroll container per grid instance.");
-		this.targetScrollContainer = targetScrollContainer;
-		getElement().callJsFunction("setShowMoreOnScrollToBottom", targetScrollContainer);
+		if(!Objects.equals(targetScrollContainer, support.getTargetScrollContainer())) {
+			scrollState = null;
+		}
+		if(preserveScrollState && scrollState != null) {
+			support.setTargetScrollContainer(targetScrollContainer);
+			restoreScrollState();
+			return;
+		}
+		support.setShowMoreOnScrollToBottom(targetScrollContainer);
 	}
 	
 	/**
@@ -179,14 +905,34 @@ public class NoScrollGrid<T> extends Grid<T> {
 	 * 
 	 * @param targetScrollContainer Target scroll container element. For example
 	 *                              body or div.
-	 * @param waitForLoadingTimeout Set milliseconds to wait before showing more
-	 *                              rows initially after grid is done loading. This
-	 *                              has effect only when {@link #showMoreOnInit} is
-	 *                              set to true (default). Default is 50
-	 *                              milliseconds. Zero or positive integer.
+	 * @param waitForLoadingTimeout Set additional milliseconds to wait before
+	 *                              showing more rows initially after grid is done
+	 *                              loading. This has effect only when
+	 *                              {@link #showMoreOnInit} is set to true
+	 *                              (default). Default is zero, rows are shown as
+	 *                              soon as received data is rendered. Zero or
+	 *                              positive integer.
+	 * @deprecated Initial fill reacts to grid's loading state and received data,
+	 *             so waiting is not needed. Use
+	 *             {@link #setShowMoreOnScrollToBottom(Element)} and
+	 *             {@link #addInitialFillListener(ComponentEventListener)} to track
+	 *             time to full viewport.
 	 */
+	@Deprecated
 	public void setShowMoreOnScrollToBottom(Element targetScrollContainer, int waitForLoadingTimeout) {
 		getElement().callJsFunction("setWaitForLoading", waitForLoadingTimeout);
 		setShowMoreOnScrollToBottom(targetScrollContainer);
 	}
+	
+	private static class ScrollState implements Serializable {
+		private final double height;
+		private final double scrollTop;
+		private final double rowHeight;
+
+		ScrollState(double height, double scrollTop, double rowHeight) {
+			this.height = height;
+			this.scrollTop = scrollTop;
+			this.rowHeight = rowHeight;
+		}
+	}
 }
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.componentfactory;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.data.provider.ListDataProvider;
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * Append-only item source for {@link NoScrollGrid} where items arrive over time,
+ * for example audit log or job output. Items can be offered from any thread.
+ * They are appended to the grid in batches with {@link UI#access(com.vaadin.flow.server.Command)},
+ * at most once per {@link #setMinFlushInterval(long)}, so application needs
+ * server push enabled. Grid keeps its grown height while items are appended and
+ * shows more rows if bottom of the grid is visible.
+ * <p>
+ * At most given number of items wait for the next batch. When the limit is
+ * reached, {@link #offer(Object)} returns <code>false</code> and
+ * {@link #put(Object)} blocks until the next batch is taken on the server.
+ * Throttling is done on the server only: browser does not acknowledge batches,
+ * so a slow browser connection does not hold producers back.
+ * </p>
+ * <p>
+ * Each batch refreshes the data provider, and grid then sends all rows of its
+ * active range to browser again, not only the appended rows. To keep that cost
+ * independent of the number of rows already shown, feed limits the grid with
+ * {@link NoScrollGrid#setMaxActiveItems(int)} to {@value #DEFAULT_ACTIVE_PAGES}
+ * pages, unless a limit is already set. A batch then costs at most the active
+ * range of rows.
+ * </p>
+ * <p>
+ * Feed stops appending when grid gets another data provider or another feed.
+ * It then restores keep height on data change and maximum active items that
+ * were set before the feed was created. Batches are delayed with one shared
+ * daemon thread, which is stopped when the last open feed is closed.
+ * </p>
+ * 
+ * @author Vaadin Ltd
+ * 
+ * @param <T> the grid bean type
+ * @see NoScrollGrid#createFeed(int)
+ */
+public class NoScrollGridFeed<T> implements Serializable {
+
+	/**
+	 * Number of pages kept active by default, so each batch resends at most this
+	 * many pages.
+	 */
+	public static final int DEFAULT_ACTIVE_PAGES = 4;
+
+	private static ScheduledExecutorService scheduler;
+	private static int openFeeds;
+
+	private final List<T> items = new ArrayList<>();
+	private final ListDataProvider<T> dataProvider = new ListDataProvider<>(items);
+	private final BlockingQueue<T> pending;
+	private final AtomicBoolean flushScheduled = new AtomicBoolean();
+	private volatile UI ui;
+	private volatile long minFlushInterval = 100;
+	private volatile long lastFlush;
+	private volatile boolean closed;
+	private final Registration attachRegistration;
+	private final Registration detachRegistration;
+	private final NoScrollGrid<T> grid;
+	private final boolean previousKeepHeight;
+	private final int feedMaxActiveItems;
+
+	NoScrollGridFeed(NoScrollGrid<T> grid, int maxPendingItems) {
+		this.grid = grid;
+		pending = new LinkedBlockingQueue<>(maxPendingItems);
+		previousKeepHeight = grid.isKeepHeightOnDataChange();
+		grid.setKeepHeightOnDataChange(true);
+		if (grid.getMaxActiveItems() == 0) {
+			feedMaxActiveItems = DEFAULT_ACTIVE_PAGES * grid.getPageSize();
+			grid.setMaxActiveItems(feedMaxActiveItems);
+		} else {
+			feedMaxActiveItems = 0;
+		}
+		opened();
+		grid.setDataProvider(dataProvider);
+		grid.getUI().ifPresent(attachedUI -> ui = attachedUI);
+		attachRegistration = grid.addAttachListener(event -> {
+			ui = event.getUI();
+			scheduleFlush();
+		});
+		detachRegistration = grid.addDetachListener(event -> ui = null);
+	}
+
+	boolean isSourceOf(Object dataProvider) {
+		return this.dataProvider == dataProvider;
+	}
+
+	/**
+	 * Removes listeners from grid and restores settings changed by the feed.
+	 * Items are not appended after this.
+	 */
+	void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		ui = null;
+		attachRegistration.remove();
+		detachRegistration.remove();
+		pending.clear();
+		grid.setKeepHeightOnDataChange(previousKeepHeight);
+		// limit changed by application after creating the feed is kept
+		if (feedMaxActiveItems > 0 && grid.getMaxActiveItems() == feedMaxActiveItems) {
+			grid.setMaxActiveItems(0);
+		}
+		closed();
+	}
+
+	/**
+	 * Offers item to be appended to the grid with the next batch.
+	 * 
+	 * @param item the item, not <code>null</code>
+	 * @return <code>true</code> if item was accepted, <code>false</code> if
+	 *         maximum number of items are already waiting or feed is no longer
+	 *         the source of the grid
+	 */
+	public boolean offer(T item) {
+		Objects.requireNonNull(item, "Item can not be null");
+		if (closed) {
+			return false;
+		}
+		boolean accepted = pending.offer(item);
+		scheduleFlush();
+		return accepted;
+	}
+
+	/**
+	 * Appends item to the grid with the next batch, waiting if maximum number of
+	 * items are already waiting.
+	 * 
+	 * @param item the item, not <code>null</code>
+	 * @throws InterruptedException if interrupted while waiting
+	 * @throws IllegalStateException if feed is no longer the source of the grid
+	 */
+	public void put(T item) throws InterruptedException {
+		Objects.requireNonNull(item, "Item can not be null");
+		if (closed) {
+			throw new IllegalStateException(getClass().getSimpleName()
+					+ " is no longer the item source of its grid");
+		}
+		scheduleFlush();
+		pending.put(item);
+		scheduleFlush();
+	}
+
+	/**
+	 * Appends items of given stream to the grid. Stream is consumed with given
+	 * executor and only as fast as batches are taken on the server, so stream is
+	 * not read further while maximum number of items are waiting.
+	 * 
+	 * @param stream   the stream of items, not <code>null</code>
+	 * @param executor executor for consuming the stream, not <code>null</code>
+	 * @return registration for stopping consuming and closing the stream
+	 */
+	public Registration consume(Stream<T> stream, Executor executor) {
+		Objects.requireNonNull(stream, "Stream can not be null");
+		Objects.requireNonNull(executor, "Executor can not be null");
+		AtomicBoolean stopped = new AtomicBoolean();
+		executor.execute(() -> {
+			try {
+				Iterator<T> iterator = stream.iterator();
+				while (!stopped.get() && iterator.hasNext()) {
+					put(iterator.next());
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				stream.close();
+			}
+		});
+		return () -> stopped.set(true);
+	}
+
+	/**
+	 * Set minimum time between two batches. Default is 100 milliseconds.
+	 * 
+	 * @param milliseconds minimum time between batches, zero or positive
+	 */
+	public void setMinFlushInterval(long milliseconds) {
+		if (milliseconds < 0) {
+			throw new IllegalArgumentException(getClass().getSimpleName()
+					+ ".setMinFlushInterval(milliseconds) requires zero or positive value for 'milliseconds'");
+		}
+		this.minFlushInterval = milliseconds;
+	}
+
+	/**
+	 * Gets number of items waiting for the next batch.
+	 * 
+	 * @return number of waiting items
+	 */
+	public int getPendingCount() {
+		return pending.size();
+	}
+
+	private void scheduleFlush() {
+		if (closed || pending.isEmpty() || !flushScheduled.compareAndSet(false, true)) {
+			return;
+		}
+		long delay = lastFlush + minFlushInterval - System.currentTimeMillis();
+		if (delay > 0) {
+			if (!schedule(this::access, delay)) {
+				flushScheduled.set(false);
+			}
+		} else {
+			access();
+		}
+	}
+
+	private void access() {
+		UI currentUI = ui;
+		if (currentUI == null) {
+			// flushed again on attach
+			flushScheduled.set(false);
+			return;
+		}
+		try {
+			currentUI.access(this::flush);
+		} catch (UIDetachedException e) {
+			flushScheduled.set(false);
+		}
+	}
+
+	private void flush() {
+		flushScheduled.set(false);
+		lastFlush = System.currentTimeMillis();
+		List<T> batch = new ArrayList<>();
+		pending.drainTo(batch);
+		if (closed || batch.isEmpty()) {
+			return;
+		}
+		items.addAll(batch);
+		// resends the active range, which is limited to keep batches cheap
+		dataProvider.refreshAll();
+		// items offered while flushing
+		scheduleFlush();
+	}
+
+	private static synchronized void opened() {
+		openFeeds++;
+	}
+
+	private static synchronized void closed() {
+		openFeeds--;
+		if (openFeeds == 0 && scheduler != null) {
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+	}
+
+	private static synchronized boolean schedule(Runnable task, long delay) {
+		if (openFeeds == 0) {
+			// feed was closed meanwhile
+			return false;
+		}
+		if (scheduler == null) {
+			scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, NoScrollGridFeed.class.getSimpleName());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		scheduler.schedule(task, delay, TimeUnit.MILLISECONDS);
+		return true;
+	}
+}
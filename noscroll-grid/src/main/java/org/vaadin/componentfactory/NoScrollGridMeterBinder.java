@@ -0,0 +1,39 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.componentfactory;
+
+import java.io.Serializable;
+
+/**
+ * Binds {@link NoScrollGridMetrics} of a grid to a metrics system. For example
+ * Micrometer gauges can read the getters of given metrics and timers can be
+ * recorded with {@link NoScrollGridMetrics#addGrowthStepRecorder(NoScrollGridMetrics.GrowthStepRecorder)}
+ * and {@link NoScrollGridMetrics#addDataProviderFetchRecorder(NoScrollGridMetrics.DataProviderFetchRecorder)}.
+ * 
+ * @author Vaadin Ltd
+ * 
+ * @see NoScrollGrid#bindMetrics(NoScrollGridMeterBinder)
+ */
+@FunctionalInterface
+public interface NoScrollGridMeterBinder extends Serializable {
+
+	/**
+	 * Binds given metrics.
+	 * 
+	 * @param metrics metrics of the grid, not <code>null</code>
+	 */
+	void bindTo(NoScrollGridMetrics metrics);
+}
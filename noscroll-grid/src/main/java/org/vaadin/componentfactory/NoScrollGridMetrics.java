@@ -0,0 +1,386 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.componentfactory;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * Growth statistics of one {@link NoScrollGrid}. Values are updated from
+ * {@link ShowMoreEvent}s and can be read from any thread.
+ * 
+ * @author Vaadin Ltd
+ * 
+ * @see NoScrollGrid#getMetrics()
+ */
+public class NoScrollGridMetrics implements Serializable {
+
+	/**
+	 * Receives each measured growth step. For example to record Micrometer timers.
+	 */
+	@FunctionalInterface
+	public interface GrowthStepRecorder extends Serializable {
+
+		/**
+		 * Records one growth step.
+		 * 
+		 * @param rows           number of rows requested
+		 * @param renderTime     milliseconds from trigger to rendered rows
+		 * @param fetchRoundTrip milliseconds from data request in browser to
+		 *                       received data, or -1 if no data was requested
+		 */
+		void record(int rows, long renderTime, long fetchRoundTrip);
+	}
+
+	/**
+	 * Receives each data provider fetch timed on server. For example to record
+	 * Micrometer timers of the back end.
+	 */
+	@FunctionalInterface
+	public interface DataProviderFetchRecorder extends Serializable {
+
+		/**
+		 * Records one data provider fetch.
+		 * 
+		 * @param rows      number of rows returned
+		 * @param fetchTime milliseconds spent fetching the rows
+		 */
+		void record(int rows, long fetchTime);
+	}
+
+	private final AtomicLong growthSteps = new AtomicLong();
+	private final AtomicLong rowsRequested = new AtomicLong();
+	private final AtomicLong lastRowsRequested = new AtomicLong();
+	private final AtomicLong renderTimeTotal = new AtomicLong();
+	private final AtomicLong renderTimeMax = new AtomicLong();
+	private final AtomicLong fetches = new AtomicLong();
+	private final AtomicLong fetchRoundTripTotal = new AtomicLong();
+	private final AtomicLong fetchRoundTripMax = new AtomicLong();
+	private final AtomicLong layoutTimeTotal = new AtomicLong();
+	private final AtomicLong layoutTimeMax = new AtomicLong();
+	private final AtomicLong heightResets = new AtomicLong();
+	private final AtomicLong initialFills = new AtomicLong();
+	private final AtomicLong lastInitialFillTime = new AtomicLong();
+	private final AtomicLong initialFillTimeMax = new AtomicLong();
+	private final AtomicLong detailsResizes = new AtomicLong();
+	private final AtomicLong detailsChanges = new AtomicLong();
+	private final AtomicLong detailsResizeTimeTotal = new AtomicLong();
+	private final AtomicLong detailsResizeTimeMax = new AtomicLong();
+	private final AtomicLong timingReports = new AtomicLong();
+	private final AtomicLong timingSamples = new AtomicLong();
+	private final AtomicLong dataProviderFetches = new AtomicLong();
+	private final AtomicLong dataProviderFetchTimeTotal = new AtomicLong();
+	private final AtomicLong dataProviderFetchTimeMax = new AtomicLong();
+
+	private final List<GrowthStepRecorder> recorders = new CopyOnWriteArrayList<>();
+	private final List<DataProviderFetchRecorder> fetchRecorders = new CopyOnWriteArrayList<>();
+
+	private volatile RowValueCache rowCache;
+
+	void record(ShowMoreEvent<?> event) {
+		growthSteps.incrementAndGet();
+		rowsRequested.addAndGet(event.getRows());
+		lastRowsRequested.set(event.getRows());
+		renderTimeTotal.addAndGet(event.getRenderTime());
+		renderTimeMax.accumulateAndGet(event.getRenderTime(), Math::max);
+		layoutTimeTotal.addAndGet(event.getLayoutTime());
+		layoutTimeMax.accumulateAndGet(event.getLayoutTime(), Math::max);
+		if (event.getFetchRoundTrip() >= 0) {
+			fetches.incrementAndGet();
+			fetchRoundTripTotal.addAndGet(event.getFetchRoundTrip());
+			fetchRoundTripMax.accumulateAndGet(event.getFetchRoundTrip(), Math::max);
+		}
+		recorders.forEach(recorder -> recorder.record(event.getRows(), event.getRenderTime(), event.getFetchRoundTrip()));
+	}
+
+	void record(InitialFillEvent<?> event) {
+		initialFills.incrementAndGet();
+		lastInitialFillTime.set(event.getTime());
+		initialFillTimeMax.accumulateAndGet(event.getTime(), Math::max);
+	}
+
+	void record(DetailsResizeEvent<?> event) {
+		detailsResizes.incrementAndGet();
+		detailsChanges.addAndGet(event.getChanges());
+		detailsResizeTimeTotal.addAndGet(event.getTime());
+		detailsResizeTimeMax.accumulateAndGet(event.getTime(), Math::max);
+	}
+
+	void record(TimingReportEvent<?> event) {
+		timingReports.incrementAndGet();
+		timingSamples.addAndGet(event.getTimings().size());
+	}
+
+	void recordDataProviderFetch(int rows, long fetchTime) {
+		dataProviderFetches.incrementAndGet();
+		dataProviderFetchTimeTotal.addAndGet(fetchTime);
+		dataProviderFetchTimeMax.accumulateAndGet(fetchTime, Math::max);
+		fetchRecorders.forEach(recorder -> recorder.record(rows, fetchTime));
+	}
+
+	void recordHeightReset() {
+		heightResets.incrementAndGet();
+	}
+
+	void setRowCache(RowValueCache rowCache) {
+		this.rowCache = rowCache;
+	}
+
+	/**
+	 * Adds recorder that receives every measured growth step.
+	 * 
+	 * @param recorder the recorder, not <code>null</code>
+	 * @return registration for removing the recorder
+	 */
+	public Registration addGrowthStepRecorder(GrowthStepRecorder recorder) {
+		Objects.requireNonNull(recorder, "Recorder can not be null");
+		recorders.add(recorder);
+		return () -> recorders.remove(recorder);
+	}
+
+	/**
+	 * Adds recorder that receives every data provider fetch timed on server.
+	 * 
+	 * @param recorder the recorder, not <code>null</code>
+	 * @return registration for removing the recorder
+	 */
+	public Registration addDataProviderFetchRecorder(DataProviderFetchRecorder recorder) {
+		Objects.requireNonNull(recorder, "Recorder can not be null");
+		fetchRecorders.add(recorder);
+		return () -> fetchRecorders.remove(recorder);
+	}
+
+	/**
+	 * @return number of measured growth steps
+	 */
+	public long getGrowthSteps() {
+		return growthSteps.get();
+	}
+
+	/**
+	 * @return total number of rows requested by growth steps
+	 */
+	public long getRowsRequested() {
+		return rowsRequested.get();
+	}
+
+	/**
+	 * @return number of rows requested by the latest growth step
+	 */
+	public long getLastRowsRequested() {
+		return lastRowsRequested.get();
+	}
+
+	/**
+	 * @return average milliseconds from show more trigger to rendered rows
+	 */
+	public double getAverageRenderTime() {
+		long steps = growthSteps.get();
+		return steps == 0 ? 0 : (double) renderTimeTotal.get() / steps;
+	}
+
+	/**
+	 * @return maximum milliseconds from show more trigger to rendered rows
+	 */
+	public long getMaxRenderTime() {
+		return renderTimeMax.get();
+	}
+
+	/**
+	 * @return average milliseconds spent measuring and resizing the grid in one
+	 *         growth step
+	 */
+	public double getAverageLayoutTime() {
+		long steps = growthSteps.get();
+		return steps == 0 ? 0 : (double) layoutTimeTotal.get() / steps;
+	}
+
+	/**
+	 * @return maximum milliseconds spent measuring and resizing the grid in one
+	 *         growth step
+	 */
+	public long getMaxLayoutTime() {
+		return layoutTimeMax.get();
+	}
+
+	/**
+	 * @return number of growth steps that fetched data
+	 */
+	public long getFetches() {
+		return fetches.get();
+	}
+
+	/**
+	 * @return average milliseconds from data request in browser to received
+	 *         data, including network and server time
+	 */
+	public double getAverageFetchRoundTrip() {
+		long count = fetches.get();
+		return count == 0 ? 0 : (double) fetchRoundTripTotal.get() / count;
+	}
+
+	/**
+	 * @return maximum milliseconds from data request in browser to received
+	 *         data, including network and server time
+	 */
+	public long getMaxFetchRoundTrip() {
+		return fetchRoundTripMax.get();
+	}
+
+	/**
+	 * @return number of back end data provider fetches timed on server
+	 */
+	public long getDataProviderFetches() {
+		return dataProviderFetches.get();
+	}
+
+	/**
+	 * @return average milliseconds spent in back end data provider fetch on
+	 *         server, without network
+	 */
+	public double getAverageDataProviderFetchTime() {
+		long count = dataProviderFetches.get();
+		return count == 0 ? 0 : (double) dataProviderFetchTimeTotal.get() / count;
+	}
+
+	/**
+	 * @return maximum milliseconds spent in back end data provider fetch on
+	 *         server, without network
+	 */
+	public long getMaxDataProviderFetchTime() {
+		return dataProviderFetchTimeMax.get();
+	}
+
+	/**
+	 * @return number of initial fills of the viewport
+	 */
+	public long getInitialFills() {
+		return initialFills.get();
+	}
+
+	/**
+	 * @return milliseconds to the latest full viewport after setting target
+	 *         scroll container or height reset
+	 */
+	public long getLastInitialFillTime() {
+		return lastInitialFillTime.get();
+	}
+
+	/**
+	 * @return maximum milliseconds to full viewport after setting target scroll
+	 *         container or height reset
+	 */
+	public long getMaxInitialFillTime() {
+		return initialFillTimeMax.get();
+	}
+
+	/**
+	 * @return number of height adjustments to opened or closed details
+	 */
+	public long getDetailsResizes() {
+		return detailsResizes.get();
+	}
+
+	/**
+	 * @return total number of details changes, several changes can be adjusted
+	 *         together
+	 */
+	public long getDetailsChanges() {
+		return detailsChanges.get();
+	}
+
+	/**
+	 * @return average milliseconds from details change to adjusted height
+	 */
+	public double getAverageDetailsResizeTime() {
+		long resizes = detailsResizes.get();
+		return resizes == 0 ? 0 : (double) detailsResizeTimeTotal.get() / resizes;
+	}
+
+	/**
+	 * @return maximum milliseconds from details change to adjusted height
+	 */
+	public long getMaxDetailsResizeTime() {
+		return detailsResizeTimeMax.get();
+	}
+
+	/**
+	 * @return number of timing reports received from browser
+	 * @see NoScrollGrid#setTimingTelemetry(double, int)
+	 */
+	public long getTimingReports() {
+		return timingReports.get();
+	}
+
+	/**
+	 * @return number of sampled timings received from browser
+	 * @see NoScrollGrid#setTimingTelemetry(double, int)
+	 */
+	public long getTimingSamples() {
+		return timingSamples.get();
+	}
+
+	/**
+	 * @return number of times grid height was reset by a data change
+	 */
+	public long getHeightResets() {
+		return heightResets.get();
+	}
+
+	/**
+	 * @return number of column values served from row cache, zero if row cache is
+	 *         not enabled
+	 * @see NoScrollGrid#setRowCacheSize(int)
+	 */
+	public long getRowCacheHits() {
+		RowValueCache cache = rowCache;
+		return cache == null ? 0 : cache.getHits();
+	}
+
+	/**
+	 * @return number of column values generated because they were not in row
+	 *         cache, zero if row cache is not enabled
+	 * @see NoScrollGrid#setRowCacheSize(int)
+	 */
+	public long getRowCacheMisses() {
+		RowValueCache cache = rowCache;
+		return cache == null ? 0 : cache.getMisses();
+	}
+
+	/**
+	 * @return number of rows removed from full row cache, zero if row cache is not
+	 *         enabled. Many evictions with low hit ratio suggest a larger cache.
+	 * @see NoScrollGrid#setRowCacheSize(int)
+	 */
+	public long getRowCacheEvictions() {
+		RowValueCache cache = rowCache;
+		return cache == null ? 0 : cache.getEvictions();
+	}
+
+	/**
+	 * @return share of column values served from row cache, between 0 and 1
+	 */
+	public double getRowCacheHitRatio() {
+		long hits = getRowCacheHits();
+		long lookups = hits + getRowCacheMisses();
+		return lookups == 0 ? 0 : (double) hits / lookups;
+	}
+}
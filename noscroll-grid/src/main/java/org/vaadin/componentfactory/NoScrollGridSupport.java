@@ -0,0 +1,302 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.componentfactory;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.vaadin.flow.component.ComponentEvent;
+import com.vaadin.flow.component.ComponentEventListener;
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.data.provider.BackEndDataProvider;
+import com.vaadin.flow.data.provider.DataChangeEvent;
+import com.vaadin.flow.data.provider.DataChangeEvent.DataRefreshEvent;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.DataProviderListener;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.function.SerializableRunnable;
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * Connector setup, height updates on data change, growth settings and metrics
+ * shared by {@link NoScrollGrid} and {@link NoScrollTreeGrid}.
+ * 
+ * @author Vaadin Ltd
+ * 
+ * @param <T> the grid bean type
+ */
+final class NoScrollGridSupport<T> implements Serializable {
+
+	private final Grid<T> grid;
+	private Registration dataProviderListener;
+	private Element targetScrollContainer;
+	private NoScrollGridMetrics metrics;
+	private boolean keepHeightOnDataChange;
+	private boolean heightRefreshPending;
+
+	NoScrollGridSupport(Grid<T> grid) {
+		this.grid = grid;
+	}
+
+	/**
+	 * Shows loading spinner and grows by one page at a time. Called from
+	 * constructors that set page size.
+	 */
+	void initPageSize() {
+		grid.addClassName("show-spinner");
+		setRowsShownMoreOnScrollToBottom(grid.getPageSize());
+	}
+
+	void initConnector(boolean showMoreOnInit) {
+		grid.getUI().orElseThrow(() -> new IllegalStateException(
+				"Connector can only be initialized for an attached Grid"))
+		.getPage()
+		.executeJs("window.Vaadin.Flow.noscrollGridConnector.initLazy($0,$1,$2)",
+				grid.getElement(), grid.getPageSize(), showMoreOnInit);
+	}
+
+	/**
+	 * Listens data changes of given data provider instead of the previous one.
+	 * Height is reset, or refreshed once per round trip when grown height is kept.
+	 * 
+	 * @param dataProvider       the data provider of the grid
+	 * @param beforeHeightUpdate called first for each change, or
+	 *                           <code>null</code>
+	 * @param onHeightReset      called when height is reset, or
+	 *                           <code>null</code>
+	 */
+	void listenDataProvider(DataProvider<T, ?> dataProvider, SerializableConsumer<DataChangeEvent<T>> beforeHeightUpdate,
+			SerializableRunnable onHeightReset) {
+		if(dataProviderListener != null) {
+			dataProviderListener.remove();
+		}
+		dataProviderListener = dataProvider.addDataProviderListener(event -> {
+			if(beforeHeightUpdate != null) {
+				beforeHeightUpdate.accept(event);
+			}
+			if(targetScrollContainer == null || event instanceof DataRefreshEvent) {
+				return;
+			}
+			if(keepHeightOnDataChange) {
+				scheduleHeightRefresh();
+				return;
+			}
+			if(onHeightReset != null) {
+				onHeightReset.run();
+			}
+			grid.getElement().callJsFunction("resetHeight");
+			if(metrics != null) {
+				metrics.recordHeightReset();
+			}
+		});
+	}
+
+	private void scheduleHeightRefresh() {
+		if(heightRefreshPending) {
+			return;
+		}
+		grid.getUI().ifPresent(ui -> {
+			heightRefreshPending = true;
+			ui.beforeClientResponse(grid, context -> {
+				heightRefreshPending = false;
+				grid.getElement().callJsFunction("refreshHeight");
+			});
+		});
+	}
+
+	void setKeepHeightOnDataChange(boolean keepHeight) {
+		this.keepHeightOnDataChange = keepHeight;
+	}
+
+	boolean isKeepHeightOnDataChange() {
+		return keepHeightOnDataChange;
+	}
+
+	/**
+	 * Validates and stores target scroll container without sending it to
+	 * browser.
+	 */
+	void setTargetScrollContainer(Element targetScrollContainer) {
+		Objects.requireNonNull(targetScrollContainer, grid.getClass().getSimpleName()
+				+ ".setShowMoreOnScrollToBottom(targetScrollContainer) requires non-null target element. One target scroll container per grid instance.");
+		this.targetScrollContainer = targetScrollContainer;
+	}
+
+	Element getTargetScrollContainer() {
+		return targetScrollContainer;
+	}
+
+	void setShowMoreOnScrollToBottom(Element targetScrollContainer) {
+		setTargetScrollContainer(targetScrollContainer);
+		grid.getElement().callJsFunction("setShowMoreOnScrollToBottom", targetScrollContainer);
+	}
+
+	void showMore() {
+		grid.getElement().callJsFunction("showMore");
+	}
+
+	void setRowsShownMoreOnScrollToBottom(int rows) {
+		if(rows<1) {
+			throw new IllegalArgumentException(grid.getClass().getSimpleName()
+					+ ".setRowsShownMoreOnScrollToBottom(rows) requires integer larger than zero for 'rows'");
+		}
+		grid.getElement().callJsFunction("setRowsShownMoreOnScrollToBottom", rows);
+	}
+
+	void setShowMorePrefetchDistance(int pixels) {
+		if(pixels<0) {
+			throw new IllegalArgumentException(grid.getClass().getSimpleName()
+					+ ".setShowMorePrefetchDistance(pixels) requires zero or positive integer for 'pixels'");
+		}
+		grid.getElement().callJsFunction("setPrefetchDistance", pixels, 0);
+	}
+
+	void setShowMorePrefetchRows(int rows) {
+		if(rows<1) {
+			throw new IllegalArgumentException(grid.getClass().getSimpleName()
+					+ ".setShowMorePrefetchRows(rows) requires integer larger than zero for 'rows'");
+		}
+		grid.getElement().callJsFunction("setPrefetchDistance", 30, rows);
+	}
+
+	void setMaxPrefetchRows(int rows) {
+		if(rows<0) {
+			throw new IllegalArgumentException(grid.getClass().getSimpleName()
+					+ ".setMaxPrefetchRows(rows) requires zero or positive integer for 'rows'");
+		}
+		grid.getElement().callJsFunction("setMaxPrefetchRows", rows);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	<E extends ComponentEvent<?>> Registration addListener(Class<E> eventType, ComponentEventListener<?> listener) {
+		return ComponentUtil.addListener(grid, eventType, (ComponentEventListener) Objects.requireNonNull(listener));
+	}
+
+	boolean hasMetrics() {
+		return metrics != null;
+	}
+
+	NoScrollGridMetrics getMetrics() {
+		if(metrics == null) {
+			metrics = new NoScrollGridMetrics();
+			addListener(ShowMoreEvent.class, (ComponentEventListener<ShowMoreEvent<T>>) metrics::record);
+			addListener(InitialFillEvent.class, (ComponentEventListener<InitialFillEvent<T>>) metrics::record);
+			addListener(DetailsResizeEvent.class, (ComponentEventListener<DetailsResizeEvent<T>>) metrics::record);
+		}
+		return metrics;
+	}
+
+	/**
+	 * Binds metrics from given getter, which the grid may extend with its own
+	 * listeners.
+	 */
+	void bindMetrics(NoScrollGridMeterBinder binder, Supplier<NoScrollGridMetrics> metricsGetter) {
+		Objects.requireNonNull(binder, grid.getClass().getSimpleName()
+				+ ".bindMetrics(binder) requires non-null binder");
+		binder.bindTo(metricsGetter.get());
+	}
+
+	void bindMetrics(NoScrollGridMeterBinder binder) {
+		bindMetrics(binder, this::getMetrics);
+	}
+
+	/**
+	 * Wraps back end data provider so that its fetches are timed on server once
+	 * metrics are collected. Other data providers are returned as is.
+	 * 
+	 * @param dataProvider the data provider set to the grid
+	 * @return the data provider to give to the grid
+	 */
+	DataProvider<T, ?> timeFetches(DataProvider<T, ?> dataProvider) {
+		if(dataProvider instanceof BackEndDataProvider) {
+			return new FetchTimingDataProvider<>((BackEndDataProvider<T, ?>) dataProvider);
+		}
+		return dataProvider;
+	}
+
+	/**
+	 * Returns the data provider given to {@link #timeFetches(DataProvider)}.
+	 */
+	DataProvider<T, ?> unwrap(DataProvider<T, ?> dataProvider) {
+		if(dataProvider instanceof NoScrollGridSupport.FetchTimingDataProvider) {
+			return ((FetchTimingDataProvider<?>) dataProvider).dataProvider;
+		}
+		return dataProvider;
+	}
+
+	private final class FetchTimingDataProvider<F> implements BackEndDataProvider<T, F> {
+
+		private final BackEndDataProvider<T, F> dataProvider;
+
+		private FetchTimingDataProvider(BackEndDataProvider<T, F> dataProvider) {
+			this.dataProvider = dataProvider;
+		}
+
+		@Override
+		public Stream<T> fetch(Query<T, F> query) {
+			NoScrollGridMetrics fetchMetrics = metrics;
+			if(fetchMetrics == null) {
+				return dataProvider.fetch(query);
+			}
+			long start = System.nanoTime();
+			// collected here to include back end reading a lazy stream
+			List<T> items;
+			try (Stream<T> stream = dataProvider.fetch(query)) {
+				items = stream.collect(Collectors.toList());
+			}
+			fetchMetrics.recordDataProviderFetch(items.size(), (System.nanoTime() - start) / 1000000);
+			return items.stream();
+		}
+
+		@Override
+		public int size(Query<T, F> query) {
+			return dataProvider.size(query);
+		}
+
+		@Override
+		public void setSortOrders(List<QuerySortOrder> sortOrders) {
+			dataProvider.setSortOrders(sortOrders);
+		}
+
+		@Override
+		public Object getId(T item) {
+			return dataProvider.getId(item);
+		}
+
+		@Override
+		public void refreshItem(T item) {
+			dataProvider.refreshItem(item);
+		}
+
+		@Override
+		public void refreshAll() {
+			dataProvider.refreshAll();
+		}
+
+		@Override
+		public Registration addDataProviderListener(DataProviderListener<T> listener) {
+			return dataProvider.addDataProviderListener(listener);
+		}
+	}
+}
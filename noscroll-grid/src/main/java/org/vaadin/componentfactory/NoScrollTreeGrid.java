@@ -0,0 +1,235 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.componentfactory;
+
+import com.vaadin.flow.component.ComponentEventListener;
+import com.vaadin.flow.component.dependency.CssImport;
+import com.vaadin.flow.component.dependency.JsModule;
+import com.vaadin.flow.component.treegrid.TreeGrid;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * {@link TreeGrid} with disabled vertical scrolling and option to delegate
+ * scrolling to any element via {@link #setShowMoreOnScrollToBottom(Element)},
+ * like {@link NoScrollGrid}.
+ * <p>
+ * Children of expanded items are fetched as their rows are shown more. Child
+ * requests of items expanded at the same time, for example with
+ * {@link #expand(java.util.Collection)}, are sent to server in one round trip.
+ * Growth is sized from measured row heights of expanded subtrees, and grid
+ * grows or shrinks after expanding or collapsing items if its bottom is
+ * visible.
+ * </p>
+ * 
+ * @author Vaadin Ltd
+ * 
+ * @param <T> the grid bean type
+ */
+@JsModule("./noscroll-grid.js")
+@CssImport("./noscroll-grid-spinner.css")
+public class NoScrollTreeGrid<T> extends TreeGrid<T> {
+
+	private final NoScrollGridSupport<T> support = new NoScrollGridSupport<>(this);
+
+	/**
+	 * When showMoreOnInit is true, grid height will be adjusted initially to show
+	 * more rows to force scroll bar to appear to scroll container. False means that
+	 * user has to use mouse wheel down/touch scroll to trigger event that shows
+	 * more rows.
+	 */
+	protected boolean showMoreOnInit = true;
+
+	/**
+	 * @see com.vaadin.flow.component.treegrid.TreeGrid#TreeGrid()
+	 */
+	public NoScrollTreeGrid() {
+		super();
+	}
+
+	/**
+	 * Creates tree grid with given page size.
+	 * 
+	 * @param pageSize
+	 *            the page size. Must be greater than zero.
+	 */
+	public NoScrollTreeGrid(int pageSize) {
+		super();
+		setPageSize(pageSize);
+		support.initPageSize();
+	}
+
+	/**
+	 * @see com.vaadin.flow.component.treegrid.TreeGrid#TreeGrid(Class beanType)
+	 * @param beanType
+	 *            the bean type to use, not <code>null</code>
+	 */
+	public NoScrollTreeGrid(Class<T> beanType) {
+		super(beanType);
+	}
+
+	@Override
+	protected void initConnector() {
+		super.initConnector();
+		support.initConnector(showMoreOnInit);
+	}
+
+	/**
+	 * @see com.vaadin.flow.component.treegrid.TreeGrid#setDataProvider(com.vaadin.flow.data.provider.DataProvider dataProvider)
+	 */
+	@Override
+	public void setDataProvider(DataProvider<T, ?> dataProvider) {
+		super.setDataProvider(dataProvider);
+		support.listenDataProvider(dataProvider, null, null);
+	}
+
+	/**
+	 * Increases grid size by approximate height needed for number of rows given via
+	 * {@link #setRowsShownMoreOnScrollToBottom(int)}. Or less, if data provider
+	 * does not have more rows to show.
+	 */
+	public void showMore() {
+		support.showMore();
+	}
+	
+	/**
+	 * Adds listener for growth steps. Event is fired when rows shown more are
+	 * rendered in browser.
+	 * 
+	 * @param listener the listener to add, not <code>null</code>
+	 * @return a handle that can be used for removing the listener
+	 */
+	public Registration addShowMoreListener(ComponentEventListener<ShowMoreEvent<T>> listener) {
+		return support.addListener(ShowMoreEvent.class, listener);
+	}
+	
+	/**
+	 * Adds listener for initial fill. Event is fired when rows shown more initially
+	 * are rendered and viewport of the target scroll container is full.
+	 * 
+	 * @param listener the listener to add, not <code>null</code>
+	 * @return a handle that can be used for removing the listener
+	 */
+	public Registration addInitialFillListener(ComponentEventListener<InitialFillEvent<T>> listener) {
+		return support.addListener(InitialFillEvent.class, listener);
+	}
+	
+	/**
+	 * Adds listener for height adjustments to opened or closed item details.
+	 * 
+	 * @param listener the listener to add, not <code>null</code>
+	 * @return a handle that can be used for removing the listener
+	 */
+	public Registration addDetailsResizeListener(ComponentEventListener<DetailsResizeEvent<T>> listener) {
+		return support.addListener(DetailsResizeEvent.class, listener);
+	}
+	
+	/**
+	 * Gets growth statistics of this grid. Statistics are collected from the first
+	 * call of this method or {@link #bindMetrics(NoScrollGridMeterBinder)}.
+	 * 
+	 * @return metrics of this grid, never <code>null</code>
+	 */
+	public NoScrollGridMetrics getMetrics() {
+		return support.getMetrics();
+	}
+	
+	/**
+	 * Binds growth statistics of this grid to a meter registry.
+	 * 
+	 * @param binder the binder to bind metrics with, not <code>null</code>
+	 * @see NoScrollGrid#bindMetrics(NoScrollGridMeterBinder)
+	 */
+	public void bindMetrics(NoScrollGridMeterBinder binder) {
+		support.bindMetrics(binder);
+	}
+
+	/**
+	 * Set how many rows is shown more in grid on scroll to bottom.
+	 * 
+	 * @param rows number of rows to show more
+	 */
+	public void setRowsShownMoreOnScrollToBottom(int rows) {
+		support.setRowsShownMoreOnScrollToBottom(rows);
+	}
+	
+	/**
+	 * Set distance in pixels from the bottom of the grid where scrolling starts to
+	 * show more rows. Default is 30 pixels.
+	 * 
+	 * @param pixels distance in pixels, zero or positive integer
+	 * @see NoScrollGrid#setShowMorePrefetchDistance(int)
+	 */
+	public void setShowMorePrefetchDistance(int pixels) {
+		support.setShowMorePrefetchDistance(pixels);
+	}
+
+	/**
+	 * Set distance in rows from the bottom of the grid where scrolling starts to
+	 * show more rows, so children of expanded items are fetched before they are
+	 * scrolled into view.
+	 * 
+	 * @param rows distance in rows, integer larger than zero
+	 * @see NoScrollGrid#setShowMorePrefetchRows(int)
+	 */
+	public void setShowMorePrefetchRows(int rows) {
+		support.setShowMorePrefetchRows(rows);
+	}
+
+	/**
+	 * Set maximum number of rows prefetched ahead based on scroll velocity.
+	 * 
+	 * @param rows maximum number of prefetched rows, or zero to disable
+	 * @see NoScrollGrid#setMaxPrefetchRows(int)
+	 */
+	public void setMaxPrefetchRows(int rows) {
+		support.setMaxPrefetchRows(rows);
+	}
+
+	/**
+	 * Set whether grown height is kept when data provider changes its items.
+	 * 
+	 * @param keepHeight <code>true</code> to keep grown height on data change
+	 * @see NoScrollGrid#setKeepHeightOnDataChange(boolean)
+	 */
+	public void setKeepHeightOnDataChange(boolean keepHeight) {
+		support.setKeepHeightOnDataChange(keepHeight);
+	}
+	
+	/**
+	 * Gets whether grown height is kept when data provider changes its items.
+	 * 
+	 * @return <code>true</code> if grown height is kept on data change
+	 * @see #setKeepHeightOnDataChange(boolean)
+	 */
+	public boolean isKeepHeightOnDataChange() {
+		return support.isKeepHeightOnDataChange();
+	}
+
+	/**
+	 * Set target scroll container. Does not add vertical scroll bar. Adds listener
+	 * to given element for scroll event into bottom to show more rows in grid. If
+	 * element does not have visible scroll bar, then it listens for mouse wheel
+	 * event and touch event to show more.
+	 * 
+	 * @param targetScrollContainer Target scroll container element. For example
+	 *                              body or div.
+	 */
+	public void setShowMoreOnScrollToBottom(Element targetScrollContainer) {
+		support.setShowMoreOnScrollToBottom(targetScrollContainer);
+	}
+}
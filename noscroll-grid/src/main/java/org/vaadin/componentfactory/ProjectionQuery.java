@@ -0,0 +1,86 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.componentfactory;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import com.vaadin.flow.data.provider.Query;
+
+/**
+ * {@link Query} carrying names of the properties rendered by visible columns
+ * of {@link NoScrollGrid}. Back end can select only these properties instead of
+ * loading full beans, for example when entities have many fields or large
+ * objects that are not shown.
+ * 
+ * @author Vaadin Ltd
+ * 
+ * @param <T> the bean type
+ * @param <F> the filter type
+ * 
+ * @see NoScrollGrid#setItemsWithProjection(ProjectionFetchCallback,
+ *      com.vaadin.flow.data.provider.CallbackDataProvider.CountCallback)
+ */
+public class ProjectionQuery<T, F> extends Query<T, F> {
+
+	/**
+	 * Callback for fetching a page of items with a {@link ProjectionQuery}.
+	 * 
+	 * @param <T> the bean type
+	 * @param <F> the filter type
+	 */
+	@FunctionalInterface
+	public interface ProjectionFetchCallback<T, F> extends Serializable {
+
+		/**
+		 * Fetches a page of items.
+		 * 
+		 * @param query the query, with properties of visible columns
+		 * @return stream of items, not more than {@link Query#getLimit()}
+		 */
+		Stream<T> fetch(ProjectionQuery<T, F> query);
+	}
+
+	private final Set<String> properties;
+
+	/**
+	 * Creates projection query from given query.
+	 * 
+	 * @param query      the original query, not <code>null</code>
+	 * @param properties names of the properties needed for rendering, not
+	 *                   <code>null</code>
+	 */
+	public ProjectionQuery(Query<T, F> query, Set<String> properties) {
+		super(query.getOffset(), query.getLimit(), query.getSortOrders(), query.getInMemorySorting(),
+				query.getFilter().orElse(null));
+		this.properties = Collections.unmodifiableSet(new LinkedHashSet<>(properties));
+	}
+
+	/**
+	 * Gets names of the properties needed for rendering, in column order. Items
+	 * need to have at least these properties set, other properties can be left
+	 * out. Empty when no visible column has a key, and full items should then be
+	 * fetched.
+	 * 
+	 * @return unmodifiable set of property names, never <code>null</code>
+	 */
+	public Set<String> getProperties() {
+		return properties;
+	}
+}
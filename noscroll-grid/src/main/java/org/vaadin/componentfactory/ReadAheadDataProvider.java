@@ -0,0 +1,220 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.componentfactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.vaadin.flow.data.provider.AbstractBackEndDataProvider;
+import com.vaadin.flow.data.provider.CallbackDataProvider.CountCallback;
+import com.vaadin.flow.data.provider.CallbackDataProvider.FetchCallback;
+import com.vaadin.flow.data.provider.Query;
+
+/**
+ * Back end data provider that loads the next page in background while
+ * {@link NoScrollGrid} renders the current one. After each full page, the page
+ * right after it is fetched on an executor with the same sort order and filter.
+ * When grid shows more rows and asks for that page, it is served from the
+ * buffer without waiting for the back end, or the request waits for the fetch
+ * already in progress.
+ * <p>
+ * Buffered pages expire after {@link #setExpiration(long)} milliseconds and are
+ * dropped when sort order or filter changes, and on {@link #refreshAll()} and
+ * {@link #refreshItem(Object)}. Fetch callback is called from executor threads,
+ * outside of the session lock, so it should not access UI state. Use one
+ * instance per grid.
+ * </p>
+ * <p>
+ * Application owns the executor and shuts it down, for example when the
+ * servlet context is destroyed. Executor is not serialized, so pages are not
+ * read ahead after the session is deserialized.
+ * </p>
+ * 
+ * @author Vaadin Ltd
+ * 
+ * @param <T> the bean type
+ * @param <F> the filter type
+ */
+public class ReadAheadDataProvider<T, F> extends AbstractBackEndDataProvider<T, F> {
+
+	/**
+	 * Maximum number of buffered pages. Growth only needs the next one, one more
+	 * covers a page requested while the previous read ahead is still running.
+	 */
+	private static final int MAX_BUFFERED_PAGES = 2;
+
+	private static class ReadAhead<T> {
+		private final int limit;
+		private final long created = System.currentTimeMillis();
+		private final CompletableFuture<List<T>> items;
+
+		private ReadAhead(int limit, CompletableFuture<List<T>> items) {
+			this.limit = limit;
+			this.items = items;
+		}
+	}
+
+	private final FetchCallback<T, F> fetchCallback;
+	private final CountCallback<T, F> countCallback;
+	private transient Executor executor;
+	private long expiration = 10000;
+
+	private transient Map<Integer, ReadAhead<T>> buffer;
+	private List<String> bufferSortOrders;
+	private F bufferFilter;
+
+	/**
+	 * Creates read ahead data provider.
+	 * 
+	 * @param fetchCallback function that returns a page of items for a query, not
+	 *                      <code>null</code>
+	 * @param countCallback function that returns number of items for a query, not
+	 *                      <code>null</code>
+	 * @param executor      executor for fetching next pages, not
+	 *                      <code>null</code>
+	 */
+	public ReadAheadDataProvider(FetchCallback<T, F> fetchCallback, CountCallback<T, F> countCallback,
+			Executor executor) {
+		this.fetchCallback = Objects.requireNonNull(fetchCallback, "Fetch callback can not be null");
+		this.countCallback = Objects.requireNonNull(countCallback, "Count callback can not be null");
+		this.executor = Objects.requireNonNull(executor, "Executor can not be null");
+	}
+
+	/**
+	 * Creates read ahead data provider without count. Use with
+	 * {@link com.vaadin.flow.component.grid.GridLazyDataView#setItemCountUnknown()}.
+	 * 
+	 * @param fetchCallback function that returns a page of items for a query, not
+	 *                      <code>null</code>
+	 * @param executor      executor for fetching next pages, not
+	 *                      <code>null</code>
+	 */
+	public ReadAheadDataProvider(FetchCallback<T, F> fetchCallback, Executor executor) {
+		this(fetchCallback, query -> {
+			throw new IllegalStateException(ReadAheadDataProvider.class.getSimpleName()
+					+ " was created without count callback. Set item count unknown for the component.");
+		}, executor);
+	}
+
+	/**
+	 * Set milliseconds after which a page fetched ahead is not served anymore.
+	 * Default is 10 seconds.
+	 * 
+	 * @param expiration expiration in milliseconds, zero or positive
+	 */
+	public void setExpiration(long expiration) {
+		if (expiration < 0) {
+			throw new IllegalArgumentException(getClass().getSimpleName()
+					+ ".setExpiration(expiration) requires zero or positive number for 'expiration'");
+		}
+		this.expiration = expiration;
+	}
+
+	@Override
+	protected Stream<T> fetchFromBackEnd(Query<T, F> query) {
+		ReadAhead<T> readAhead;
+		synchronized (this) {
+			clearIfChanged(query);
+			readAhead = getBuffer().remove(query.getOffset());
+		}
+		List<T> items = null;
+		if (readAhead != null && readAhead.limit == query.getLimit()
+				&& System.currentTimeMillis() - readAhead.created <= expiration) {
+			try {
+				items = readAhead.items.join();
+			} catch (CompletionException | CancellationException e) {
+				// fetched again below on request thread, which reports the error
+			}
+		}
+		if (items == null) {
+			items = fetchCallback.fetch(query).collect(Collectors.toList());
+		}
+		// executor is not restored after deserialization
+		if (items.size() == query.getLimit() && executor != null) {
+			readAhead(query);
+		}
+		return items.stream();
+	}
+
+	@Override
+	protected int sizeInBackEnd(Query<T, F> query) {
+		return countCallback.count(query);
+	}
+
+	@Override
+	public void refreshAll() {
+		clear();
+		super.refreshAll();
+	}
+
+	@Override
+	public void refreshItem(T item) {
+		clear();
+		super.refreshItem(item);
+	}
+
+	private synchronized void readAhead(Query<T, F> query) {
+		int offset = query.getOffset() + query.getLimit();
+		if (getBuffer().containsKey(offset)) {
+			return;
+		}
+		Query<T, F> next = new Query<>(offset, query.getLimit(), query.getSortOrders(), query.getInMemorySorting(),
+				query.getFilter().orElse(null));
+		getBuffer().put(offset, new ReadAhead<>(query.getLimit(), CompletableFuture
+				.supplyAsync(() -> fetchCallback.fetch(next).collect(Collectors.toList()), executor)));
+	}
+
+	private synchronized void clear() {
+		getBuffer().values().forEach(readAhead -> readAhead.items.cancel(false));
+		getBuffer().clear();
+	}
+
+	private void clearIfChanged(Query<T, F> query) {
+		List<String> sortOrders = new ArrayList<>();
+		query.getSortOrders().forEach(order -> sortOrders.add(order.getSorted() + " " + order.getDirection()));
+		F filter = query.getFilter().orElse(null);
+		if (!sortOrders.equals(bufferSortOrders) || !Objects.equals(filter, bufferFilter)) {
+			clear();
+			bufferSortOrders = sortOrders;
+			bufferFilter = filter;
+		}
+	}
+
+	private Map<Integer, ReadAhead<T>> getBuffer() {
+		if (buffer == null) {
+			buffer = new LinkedHashMap<Integer, ReadAhead<T>>() {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Integer, ReadAhead<T>> eldest) {
+					if (size() > MAX_BUFFERED_PAGES) {
+						eldest.getValue().items.cancel(false);
+						return true;
+					}
+					return false;
+				}
+			};
+		}
+		return buffer;
+	}
+}
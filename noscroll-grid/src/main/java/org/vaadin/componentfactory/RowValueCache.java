@@ -0,0 +1,114 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.componentfactory;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.vaadin.flow.function.SerializableSupplier;
+
+/**
+ * Least recently used cache of column values generated for rows of
+ * {@link NoScrollGrid}. Values of an item are kept under the item's id, and
+ * dropped when version of the item changes. Used from the session's thread,
+ * statistics can be read from any thread.
+ * 
+ * @author Vaadin Ltd
+ */
+class RowValueCache implements Serializable {
+
+	private static class Entry implements Serializable {
+		private final Object version;
+		private final Map<String, Object> values = new HashMap<>();
+
+		private Entry(Object version) {
+			this.version = version;
+		}
+	}
+
+	private final int maxRows;
+	private final Map<Object, Entry> entries;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	RowValueCache(int maxRows) {
+		this.maxRows = maxRows;
+		entries = new LinkedHashMap<Object, Entry>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+				if (size() > RowValueCache.this.maxRows) {
+					evictions.incrementAndGet();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Gets cached value of given column, or computes and caches it.
+	 * 
+	 * @param id       id of the item
+	 * @param version  version of the item, or <code>null</code>
+	 * @param columnId id of the column
+	 * @param value    supplier computing the value when it is not cached
+	 * @return the value
+	 */
+	Object get(Object id, Object version, String columnId, SerializableSupplier<Object> value) {
+		Entry entry = entries.get(id);
+		if (entry == null || !Objects.equals(entry.version, version)) {
+			entry = new Entry(version);
+			entries.put(id, entry);
+		} else if (entry.values.containsKey(columnId)) {
+			hits.incrementAndGet();
+			return entry.values.get(columnId);
+		}
+		misses.incrementAndGet();
+		Object computed = value.get();
+		entry.values.put(columnId, computed);
+		return computed;
+	}
+
+	void remove(Object id) {
+		entries.remove(id);
+	}
+
+	void clear() {
+		entries.clear();
+	}
+
+	int getMaxRows() {
+		return maxRows;
+	}
+
+	long getHits() {
+		return hits.get();
+	}
+
+	long getMisses() {
+		return misses.get();
+	}
+
+	long getEvictions() {
+		return evictions.get();
+	}
+}
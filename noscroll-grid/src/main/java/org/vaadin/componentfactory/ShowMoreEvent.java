@@ -0,0 +1,107 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.componentfactory;
+
+import com.vaadin.flow.component.ComponentEvent;
+import com.vaadin.flow.component.DomEvent;
+import com.vaadin.flow.component.EventData;
+import com.vaadin.flow.component.grid.Grid;
+
+/**
+ * Event fired when {@link NoScrollGrid} or {@link NoScrollTreeGrid} has grown
+ * by a show more step and the requested rows are rendered in browser. Growth
+ * steps triggered while previous one is still in progress are reported as one
+ * event.
+ * 
+ * @author Vaadin Ltd
+ * 
+ * @param <T> the grid bean type
+ */
+@DomEvent("noscroll-show-more")
+public class ShowMoreEvent<T> extends ComponentEvent<Grid<T>> {
+
+	private final int rows;
+	private final long renderTime;
+	private final long fetchRoundTrip;
+	private final long layoutTime;
+
+	/**
+	 * Creates a new show more event.
+	 * 
+	 * @param source         the component that fired the event
+	 * @param fromClient     <code>true</code> if the event was originally fired
+	 *                       on the client, <code>false</code> if the event
+	 *                       originates from server-side logic
+	 * @param rows           number of rows requested to show more
+	 * @param renderTime     milliseconds from the show more trigger to rendered
+	 *                       rows
+	 * @param fetchRoundTrip milliseconds from the data request in browser to
+	 *                       received data, or -1 if no data was requested
+	 * @param layoutTime     milliseconds spent in measuring and resizing the
+	 *                       grid, including forced layouts
+	 */
+	public ShowMoreEvent(Grid<T> source, boolean fromClient,
+			@EventData("event.detail.rows") int rows,
+			@EventData("event.detail.renderTime") long renderTime,
+			@EventData("event.detail.fetchRoundTrip") long fetchRoundTrip,
+			@EventData("event.detail.layoutTime") long layoutTime) {
+		super(source, fromClient);
+		this.rows = rows;
+		this.renderTime = renderTime;
+		this.fetchRoundTrip = fetchRoundTrip;
+		this.layoutTime = layoutTime;
+	}
+
+	/**
+	 * Gets number of rows requested to show more in this growth step.
+	 * 
+	 * @return number of rows
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * Gets time from the show more trigger to the rows being rendered.
+	 * 
+	 * @return time in milliseconds
+	 */
+	public long getRenderTime() {
+		return renderTime;
+	}
+
+	/**
+	 * Gets round trip time from the data request in browser to the data being
+	 * received in browser. Includes network, server request handling and data
+	 * provider fetch, so it is not the time spent in the data provider alone.
+	 * 
+	 * @return time in milliseconds, or -1 if growth step did not fetch data
+	 */
+	public long getFetchRoundTrip() {
+		return fetchRoundTrip;
+	}
+
+	/**
+	 * Gets time spent in browser's main thread measuring and resizing the grid
+	 * in this growth step. Reading layout after it has been changed in the same
+	 * task forces a synchronous layout, which is included in this time.
+	 * 
+	 * @return time in milliseconds
+	 */
+	public long getLayoutTime() {
+		return layoutTime;
+	}
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.componentfactory;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+import com.vaadin.flow.component.ComponentEvent;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.data.provider.DataProvider;
+
+/**
+ * Event fired when browser reports a batch of sampled timings measured in
+ * {@link NoScrollGrid}. Page size and data provider type of the grid at the
+ * time of the report are included, so slow timings can be correlated with
+ * them.
+ * 
+ * @author Vaadin Ltd
+ * 
+ * @param <T> the grid bean type
+ * @see NoScrollGrid#setTimingTelemetry(double, int)
+ */
+public class TimingReportEvent<T> extends ComponentEvent<Grid<T>> {
+
+	/**
+	 * Type of the measured interaction.
+	 */
+	public enum TimingType {
+		/**
+		 * From show more trigger to rendered rows.
+		 */
+		GROWTH_STEP("growth-step"),
+		/**
+		 * From setting the target scroll container, or from height reset, to
+		 * full viewport.
+		 */
+		INITIAL_FILL("initial-fill"),
+		/**
+		 * From details change to adjusted height.
+		 */
+		DETAILS_RESIZE("details-resize");
+
+		private final String clientName;
+
+		TimingType(String clientName) {
+			this.clientName = clientName;
+		}
+
+		static TimingType forClientName(String clientName) {
+			for (TimingType type : values()) {
+				if (type.clientName.equals(clientName)) {
+					return type;
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * One timing measured in browser.
+	 */
+	public static class Timing implements Serializable {
+
+		private final TimingType type;
+		private final long duration;
+		private final int rows;
+		private final long fetchRoundTrip;
+		private final int changes;
+
+		Timing(TimingType type, long duration, int rows, long fetchRoundTrip, int changes) {
+			this.type = type;
+			this.duration = duration;
+			this.rows = rows;
+			this.fetchRoundTrip = fetchRoundTrip;
+			this.changes = changes;
+		}
+
+		/**
+		 * @return type of the measured interaction
+		 */
+		public TimingType getType() {
+			return type;
+		}
+
+		/**
+		 * @return milliseconds from trigger to render
+		 */
+		public long getDuration() {
+			return duration;
+		}
+
+		/**
+		 * @return number of rows requested by a growth step, or -1 for other types
+		 */
+		public int getRows() {
+			return rows;
+		}
+
+		/**
+		 * @return round trip milliseconds from data request to received data in
+		 *         a growth step, or -1 if no data was requested or for other
+		 *         types
+		 */
+		public long getFetchRoundTrip() {
+			return fetchRoundTrip;
+		}
+
+		/**
+		 * @return number of details opened or closed in a details resize, or -1
+		 *         for other types
+		 */
+		public int getChanges() {
+			return changes;
+		}
+	}
+
+	private final List<Timing> timings;
+	private final int pageSize;
+	private final Class<?> dataProviderType;
+
+	/**
+	 * Creates a new timing report event.
+	 * 
+	 * @param source           the component that fired the event
+	 * @param fromClient       <code>true</code> if the event was originally fired
+	 *                         on the client, <code>false</code> if the event
+	 *                         originates from server-side logic
+	 * @param timings          the reported timings
+	 * @param pageSize         page size of the grid
+	 * @param dataProviderType type of the data provider of the grid
+	 */
+	public TimingReportEvent(Grid<T> source, boolean fromClient, List<Timing> timings, int pageSize,
+			Class<?> dataProviderType) {
+		super(source, fromClient);
+		this.timings = Collections.unmodifiableList(timings);
+		this.pageSize = pageSize;
+		this.dataProviderType = dataProviderType;
+	}
+
+	/**
+	 * Gets sampled timings measured since the previous report.
+	 * 
+	 * @return unmodifiable list of timings, never <code>null</code>
+	 */
+	public List<Timing> getTimings() {
+		return timings;
+	}
+
+	/**
+	 * Gets page size of the grid when timings were reported.
+	 * 
+	 * @return the page size
+	 */
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	/**
+	 * Gets type of the data provider of the grid when timings were reported.
+	 * 
+	 * @return the {@link DataProvider} class
+	 */
+	public Class<?> getDataProviderType() {
+		return dataProviderType;
+	}
+}
@@ -4,6 +4,75 @@ import { afterNextRender } from '@polymer/polymer/lib/utils/render-status.js';
 import { GridElement } from '@vaadin/vaadin-grid';
 
 window.Vaadin.Flow.noscrollGridConnector = {
+  scrollCoordinators: new WeakMap(),
+
+  /* Scroll coordinator is shared by all grids in the same target scroll container. It listens scroll events
+  *  once, reads container geometry once per frame and lets each grid measure itself before any changes
+  *  are applied. Only the top-most grid near its bottom shows more rows in one frame. */
+  getScrollCoordinator: function(target) {
+    const coordinators = window.Vaadin.Flow.noscrollGridConnector.scrollCoordinators;
+    let coordinator = coordinators.get(target);
+    if(coordinator) {
+      return coordinator;
+    }
+    const scrollTopElement = target === document.body ? window : target;
+    coordinator = { grids: new Set(), frameRequested: false };
+
+    const frame = () => {
+      coordinator.frameRequested = false;
+      // measure phase
+      const targetRect = target === document.body ? null : target.getBoundingClientRect();
+      const viewport = {
+        scrollTop: scrollTopElement === window ? window.scrollY : target.scrollTop,
+        top: targetRect ? targetRect.top : 0,
+        bottom: targetRect ? targetRect.bottom : window.innerHeight
+      };
+      const measured = [];
+      coordinator.grids.forEach(grid => {
+        if(!grid.isConnected) {
+          coordinator.remove(grid);
+          return;
+        }
+        const measurement = grid.$noscrollConnector.measureScrollFrame(viewport);
+        if(measurement) {
+          measured.push({ grid: grid, measurement: measurement });
+        }
+      });
+      // mutate phase
+      let growing = null;
+      measured.forEach(entry => {
+        entry.grid.$noscrollConnector.applyWindowOffset(entry.measurement.windowOffset);
+        if(entry.measurement.nearBottom && (!growing || entry.measurement.top < growing.measurement.top)) {
+          growing = entry;
+        }
+      });
+      if(growing) {
+        growing.grid.showMore();
+      }
+    };
+    const scrollHandler = () => {
+      if(coordinator.frameRequested) {
+        return;
+      }
+      coordinator.frameRequested = true;
+      requestAnimationFrame(frame);
+    };
+
+    coordinator.add = function(grid) {
+      if(coordinator.grids.size === 0) {
+        scrollTopElement.addEventListener('scroll', scrollHandler, { passive: true });
+      }
+      coordinator.grids.add(grid);
+    };
+    coordinator.remove = function(grid) {
+      if(coordinator.grids.delete(grid) && coordinator.grids.size === 0) {
+        scrollTopElement.removeEventListener('scroll', scrollHandler, { passive: true });
+      }
+    };
+    coordinators.set(target, coordinator);
+    return coordinator;
+  },
+
   initLazy: function(grid, pageSize, showMoreOnInit) {
     if(grid.$noscrollConnector) {
       return;
@@ -18,8 +87,13 @@ window.Vaadin.Flow.noscrollGridConnector = {
     grid.$noscrollConnector.targetElement = null;
     grid.$noscrollConnector.targetScrollTopElement = null;
 
-    // waiting time before showing more rows initially if grid is 'loading'
-    grid.$noscrollConnector.waitForLoadingMs = 50;
+    // additional waiting time before showing more rows initially after grid is done loading
+    grid.$noscrollConnector.waitForLoadingMs = 0;
+    // initial fill waits for size and data from server, and for grid to be done loading
+    grid.$noscrollConnector.sizeReceived = false;
+    grid.$noscrollConnector.dataReceived = false;
+    grid.$noscrollConnector.initialFillPending = false;
+    grid.$noscrollConnector.initialFillStart = -1;
 
     grid.$noscrollConnector.scrollbarWidth = grid._scrollbarWidth;
     grid.$noscrollConnector.initialHeight = grid.style.height;
@@ -28,31 +102,170 @@ window.Vaadin.Flow.noscrollGridConnector = {
 
     grid.$noscrollConnector.borderWidthTotal = undefined;
 
+    // bounded DOM window. Zero means that all shown rows are rendered.
+    grid.$noscrollConnector.maxRenderedRows = 0;
+    // value set from server. Restore and scroll to index can imply a window until height is reset.
+    grid.$noscrollConnector.configuredMaxRenderedRows = 0;
+    // height of all shown rows when grid is windowed. Zero when not windowed.
+    grid.$noscrollConnector.virtualHeight = 0;
+    // pixels replaced by spacer above the rendered window
+    grid.$noscrollConnector.windowOffset = 0;
+    grid.$noscrollConnector.measuredWindowHeight = 0;
+
+    // distance from the bottom where more rows are shown. Rows override pixels when set.
+    grid.$noscrollConnector.prefetchDistancePx = 30;
+    grid.$noscrollConnector.prefetchDistanceRows = 0;
+    // sentinel element below the last row, observed instead of reading geometry on each scroll event
+    grid.$noscrollConnector.sentinel = null;
+    grid.$noscrollConnector.sentinelObserver = null;
+    // shared by grids in the same target scroll container
+    grid.$noscrollConnector.scrollCoordinator = null;
+
+    // scroll velocity based prefetch. Zero 'maxPrefetchRows' disables it.
+    grid.$noscrollConnector.maxPrefetchRows = 0;
+    grid.$noscrollConnector.scrollVelocity = 0;
+    grid.$noscrollConnector.lastScrollTop = 0;
+    grid.$noscrollConnector.lastScrollTime = -1;
+    // time expected from data request to received data, updated from measured growth steps
+    grid.$noscrollConnector.expectedLatencyMs = 300;
+
+    // measured heights of rendered rows by item key, including opened details
+    grid.$noscrollConnector.rowHeights = new Map();
+    grid.$noscrollConnector.rowHeightsTotal = 0;
+    grid.$noscrollConnector.maxCachedRowHeights = 10000;
+
+    // maximum number of items in one requested range, kept active on server. Zero means no limit.
+    grid.$noscrollConnector.maxActiveItems = 0;
+
+    // waiting time to collect bursts of data changes before adjusting height
+    grid.$noscrollConnector.refreshHeightDebounceMs = 100;
+
+    // growth step being measured, reported to server with 'noscroll-show-more' event when rows are rendered
+    grid.$noscrollConnector.growthStep = null;
+    // triggers arriving before a scheduled growth step is applied are merged into it
+    grid.$noscrollConnector.requestedSteps = 0;
+    grid.$noscrollConnector.showMoreScheduled = false;
+    grid.$noscrollConnector.maxCoalescedSteps = 10;
+    // range requested from server and not yet received, identical requests are not sent again
+    grid.$noscrollConnector.pendingFetch = null;
+
+    // sizes of grid parts, updated by resize observer after layout so growth steps do not need to read them
+    grid.$noscrollConnector.layout = {};
+    grid.$noscrollConnector.resizeObserver = null;
+    grid.$noscrollConnector.fitFrame = 0;
+    // set by growth step, grid is fitted to its content when the resized rows are laid out
+    grid.$noscrollConnector.fitPending = false;
+
+    // measured heights of opened details by item key, folded into grid height when details change
+    grid.$noscrollConnector.detailsHeights = new Map();
+    // details changes collected in one frame, applied as one height adjustment
+    grid.$noscrollConnector.detailsChanges = 0;
+    grid.$noscrollConnector.detailsChangeStart = -1;
+
+    // when enabled, server generates values only for columns reported to be near the horizontal viewport
+    grid.$noscrollConnector.columnVirtualization = false;
+    grid.$noscrollConnector.columnScrollListener = null;
+    grid.$noscrollConnector.visibleColumns = '';
+
+    // sampled real-user timings sent to server in one call per report interval. Zero sample rate disables.
+    grid.$noscrollConnector.timingSampleRate = 0;
+    grid.$noscrollConnector.timingReportIntervalMs = 5000;
+    grid.$noscrollConnector.timings = [];
+    grid.$noscrollConnector.maxBufferedTimings = 100;
+
+    // when enabled, grown height and scroll position are saved to server and restored after reattach
+    grid.$noscrollConnector.preserveScrollState = false;
+    grid.$noscrollConnector.savedScrollState = '';
+    grid.$noscrollConnector.pendingRestore = null;
+    // set when saved state was restored as soon as size was known, so initial fill does not show more
+    grid.$noscrollConnector.restoreApplied = false;
+
     grid.$noscrollConnector.showMoreAfterReady = function() {
       if(grid.$noscrollConnector.initialScrollDone) {
         return;
       }
-      grid.$noscrollConnector._debounceJob = Debouncer.debounce(grid.$noscrollConnector._debounceJob, timeOut.after(grid.$noscrollConnector.waitForLoadingMs), () => {
-        if(!grid.loading) {
+      if(grid.$noscrollConnector.initialFillStart < 0) {
+        grid.$noscrollConnector.initialFillStart = performance.now();
+      }
+      grid.$noscrollConnector.initialFillPending = true;
+      grid.$noscrollConnector.checkReady();
+    }
+
+    grid.$noscrollConnector.isReady = function() {
+      const connector = grid.$noscrollConnector;
+      return connector.sizeReceived && !grid.loading && (grid.size === 0 || connector.dataReceived);
+    }
+
+    /* Called when loading state changes or size or data arrives from server. Shows more rows initially
+    *  once grid is ready and has rendered received rows. */
+    grid.$noscrollConnector.checkReady = function() {
+      const connector = grid.$noscrollConnector;
+      if(!connector.initialFillPending || !connector.isReady()) {
+        return;
+      }
+      connector.initialFillPending = false;
+      const fill = () => {
+        if(connector.initialScrollDone) {
+          return;
+        }
+        if(!connector.isReady()) {
+          connector.initialFillPending = true;
+          return;
+        }
+        if(connector.pendingRestore) {
+          connector.applyRestore();
+        } else if(!connector.restoreApplied) {
           grid.showMore();
-          grid.$noscrollConnector.initialScrollDone = true;
-          grid.$noscrollConnector.resetOriginalGridWheelAndTouchListeners();
-        } else {
-          grid.$noscrollConnector.showMoreAfterReady();
         }
-      });
+        connector.restoreApplied = false;
+        connector.initialScrollDone = true;
+        connector.resetOriginalGridWheelAndTouchListeners();
+        if(!connector.growthStep) {
+          // nothing more to show, viewport is already full
+          connector.reportInitialFill();
+        }
+      };
+      if(connector.waitForLoadingMs > 0) {
+        connector._debounceJob = Debouncer.debounce(connector._debounceJob, timeOut.after(connector.waitForLoadingMs), () => afterNextRender(grid, fill));
+      } else {
+        afterNextRender(grid, fill);
+      }
     }
 
-    const regularScrollHandler = e => {
-      if(grid.$noscrollConnector.targetElement.offsetHeight + grid.$noscrollConnector.targetElement.scrollTop >= (grid.$noscrollConnector.targetElement.scrollHeight - 30)) {
-        grid.showMore();
+    grid.$noscrollConnector.reportInitialFill = function() {
+      const connector = grid.$noscrollConnector;
+      if(connector.initialFillStart < 0) {
+        return;
       }
-    };
-    const bodyScrollHandler = e => {
-      if(grid.$noscrollConnector.targetElement.offsetHeight + grid.$noscrollConnector.targetScrollTopElement.scrollY >= (grid.$noscrollConnector.targetElement.scrollHeight - 30)) {
-        grid.showMore();
+      const time = connector.recordTiming('initial-fill', connector.initialFillStart, {});
+      connector.initialFillStart = -1;
+      grid.dispatchEvent(new CustomEvent('noscroll-initial-fill', { detail: { time: time } }));
+    }
+
+    grid.addEventListener('loading-changed', () => {
+      if(!grid.loading) {
+        // requested range may come back empty without calling 'set'
+        grid.$noscrollConnector.pendingFetch = null;
       }
-    };
+      grid.$noscrollConnector.checkReady();
+    });
+
+    /* Expanding or collapsing items in tree grid changes number of rows below. Grid is trimmed if rows were
+    *  removed, and grows if its bottom is still within prefetch distance. */
+    grid.addEventListener('expanded-items-changed', () => {
+      if(!grid.$noscrollConnector.targetElement || !grid.$noscrollConnector.initialScrollDone) {
+        return;
+      }
+      grid.$noscrollConnector.whenLoaded(() => {
+        afterNextRender(grid, () => {
+          if(!grid.$noscrollConnector.isWindowed()) {
+            grid._trimHeightToFit();
+          }
+          grid.$noscrollConnector.recheckSentinel();
+        });
+      });
+    });
+
     const regularTouchMoveHandler = e => {
       grid.$noscrollConnector.targetScrollTopElement.removeEventListener("touchmove", regularTouchMoveHandler, false);
       grid.$noscrollConnector.targetScrollTopElement.removeEventListener("pointermove", regularTouchMoveHandler, false);
@@ -129,6 +342,88 @@ window.Vaadin.Flow.noscrollGridConnector = {
       grid.$noscrollConnector.showMoreRows = rowCount;
     }
 
+    grid.setPrefetchDistance = function(pixels, rowCount) {
+      grid.$noscrollConnector.prefetchDistancePx = pixels;
+      grid.$noscrollConnector.prefetchDistanceRows = rowCount;
+      if(grid.$noscrollConnector.sentinelObserver) {
+        grid.$noscrollConnector.observeSentinel();
+      }
+    }
+
+    grid.setMaxPrefetchRows = function(rowCount) {
+      grid.$noscrollConnector.maxPrefetchRows = rowCount;
+      grid.$noscrollConnector.scrollVelocity = 0;
+      grid.$noscrollConnector.lastScrollTime = -1;
+    }
+
+    grid.setMaxRenderedRows = function(rowCount) {
+      grid.$noscrollConnector.maxRenderedRows = rowCount;
+      grid.$noscrollConnector.configuredMaxRenderedRows = rowCount;
+      if(rowCount === 0) {
+        grid.$noscrollConnector.clearWindow();
+      }
+    }
+
+    grid.setColumnVirtualization = function(enabled) {
+      const connector = grid.$noscrollConnector;
+      connector.columnVirtualization = enabled;
+      connector.visibleColumns = '';
+      if(enabled && !connector.columnScrollListener) {
+        connector.columnScrollListener = () => connector.scheduleVisibleColumns();
+        grid.$.table.addEventListener('scroll', connector.columnScrollListener, { passive: true });
+      } else if(!enabled && connector.columnScrollListener) {
+        grid.$.table.removeEventListener('scroll', connector.columnScrollListener, { passive: true });
+        connector.columnScrollListener = null;
+      }
+      if(enabled) {
+        connector.scheduleVisibleColumns();
+      }
+    }
+
+    grid.setTimingTelemetry = function(sampleRate, reportIntervalMs) {
+      const connector = grid.$noscrollConnector;
+      connector.timingSampleRate = sampleRate;
+      connector.timingReportIntervalMs = reportIntervalMs;
+      if(sampleRate === 0) {
+        connector.timings = [];
+      }
+    }
+
+    /* Measures time from given start to now with User Timing API, so it shows in browser performance tools
+    *  and performance observers. Sampled timings are buffered and reported to server. Returns the duration. */
+    grid.$noscrollConnector.recordTiming = function(type, start, detail) {
+      const connector = grid.$noscrollConnector;
+      const end = performance.now();
+      const name = 'noscroll-' + type;
+      try {
+        // observers receive every measure, only the latest one is kept in the performance buffer
+        performance.clearMeasures(name);
+        performance.measure(name, { start: start, end: end, detail: detail });
+      } catch(e) {
+        // User Timing Level 3 is not supported
+      }
+      const duration = Math.round(end - start);
+      if(connector.timingSampleRate <= 0 || Math.random() >= connector.timingSampleRate
+          || connector.timings.length >= connector.maxBufferedTimings) {
+        return duration;
+      }
+      connector.timings.push(Object.assign({ type: type, duration: duration }, detail));
+      if(!connector._timingReportJob || !connector._timingReportJob.isActive()) {
+        connector._timingReportJob = Debouncer.debounce(connector._timingReportJob,
+          timeOut.after(connector.timingReportIntervalMs), () => connector.reportTimings());
+      }
+      return duration;
+    }
+
+    grid.$noscrollConnector.reportTimings = function() {
+      const connector = grid.$noscrollConnector;
+      const timings = connector.timings;
+      connector.timings = [];
+      if(timings.length > 0 && grid.isConnected && grid.$server) {
+        grid.$server.reportTimings(timings);
+      }
+    }
+
     grid.setShowMoreOnScrollToBottom = function(target) {
       if(!target) {
         return;
@@ -143,8 +438,9 @@ window.Vaadin.Flow.noscrollGridConnector = {
       grid.$noscrollConnector.targetElement = target;
       grid.$noscrollConnector.targetScrollTopElement = target;
 
-      grid.$noscrollConnector.targetElement.removeEventListener("scroll", regularScrollHandler);
-      grid.$noscrollConnector.targetScrollTopElement.removeEventListener("scroll", bodyScrollHandler);
+      if(grid.$noscrollConnector.scrollCoordinator) {
+        grid.$noscrollConnector.scrollCoordinator.remove(grid);
+      }
       grid.$noscrollConnector.clearAllWheelTouchListeners();
 
       const msTouch = !('ontouchstart' in window) && !!(navigator.maxTouchPoints > 0);
@@ -158,7 +454,6 @@ window.Vaadin.Flow.noscrollGridConnector = {
         } else {
           grid.$noscrollConnector.targetElement.addEventListener("touchmove", bodyTouchMoveHandler);
         }
-        grid.$noscrollConnector.targetScrollTopElement.addEventListener("scroll", bodyScrollHandler);
       } else {
         if(msTouch) {
           grid.$noscrollConnector.targetElement.style.touchAction = "none";
@@ -166,8 +461,11 @@ window.Vaadin.Flow.noscrollGridConnector = {
         } else {
           grid.$noscrollConnector.targetElement.addEventListener("touchmove", regularTouchMoveHandler);
         }
-        grid.$noscrollConnector.targetElement.addEventListener("scroll", regularScrollHandler);
       }
+      grid.$noscrollConnector.scrollCoordinator = window.Vaadin.Flow.noscrollGridConnector.getScrollCoordinator(target);
+      grid.$noscrollConnector.scrollCoordinator.add(grid);
+      grid.$noscrollConnector.observeLayout();
+      grid.$noscrollConnector.observeSentinel();
       grid.$noscrollConnector.targetScrollTopElement.addEventListener("wheel", wheelHandler);
       grid.$.table.removeEventListener('wheel', grid.$.table.__wheelListener); // blocks wheel if not removed
       grid.$.table.addEventListener("wheel", wheelHandler);
@@ -175,13 +473,121 @@ window.Vaadin.Flow.noscrollGridConnector = {
       grid.removeEventListener('keydown', grid._onKeyDown);
       grid.addEventListener('keydown', onKeyDown);
 
-      if(grid.$noscrollConnector.showMoreOnInit) {
+      if(grid.$noscrollConnector.showMoreOnInit || grid.$noscrollConnector.pendingRestore) {
         grid.$noscrollConnector.showMoreAfterReady();
       }
     }
 
+    grid.setPreserveScrollState = function(enabled) {
+      const connector = grid.$noscrollConnector;
+      connector.preserveScrollState = enabled;
+      connector.savedScrollState = '';
+      if(enabled) {
+        connector.scheduleScrollStateSave();
+      }
+    }
+
+    /* Restores height and scroll position saved before grid was detached, instead of showing more rows from
+    *  the initial height. Restore is applied as soon as size is known, before the first rows are fetched.
+    *  Restored height that has more than 'windowRows' rows is covered by bounded window of that many rows,
+    *  so only rows in view are fetched. */
+    grid.restoreScrollState = function(target, height, scrollTop, rowHeight, windowRows) {
+      if(!target) {
+        return;
+      }
+      grid.$noscrollConnector.pendingRestore = { height: height, scrollTop: scrollTop, rowHeight: rowHeight, windowRows: windowRows };
+      grid.setShowMoreOnScrollToBottom(target);
+      if(grid.$noscrollConnector.sizeReceived) {
+        grid.$noscrollConnector.applyRestore();
+      }
+    }
+
+    /* Called when size is received, or when grid is ready if size was received before. Reads layout first and
+    *  then only writes, except for placing the window after target scroll container is scrolled to the saved
+    *  position. Content height is estimated from saved row height, as rows may not be fetched yet. */
+    grid.$noscrollConnector.applyRestore = function() {
+      const connector = grid.$noscrollConnector;
+      const state = connector.pendingRestore;
+      connector.pendingRestore = null;
+      connector.restoreApplied = true;
+      // measure phase
+      if(connector.borderWidthTotal === undefined) {
+        connector.borderWidthTotal = grid.getBoundingClientRect().bottom - grid.getBoundingClientRect().top - grid.$.scroller.clientHeight;
+      }
+      const layout = connector.getLayout();
+      const chromeHeight = layout.headerHeight + layout.footerHeight;
+      const rowHeight = state.rowHeight > 0 ? state.rowHeight : connector.getAverageRowHeight();
+      let contentHeight = state.rowHeight > 0 ? grid.size * rowHeight + chromeHeight : grid.$.table.scrollHeight;
+      if(layout.horizontalScrollBar) {
+        contentHeight += connector.scrollbarWidth;
+      }
+      // data may have changed while grid was detached
+      const height = Math.min(state.height, contentHeight);
+      const maxRenderedRows = connector.maxRenderedRows > 0 ? connector.maxRenderedRows : state.windowRows;
+      const windowHeight = maxRenderedRows * rowHeight + chromeHeight;
+
+      // mutate phase
+      if(height <= windowHeight) {
+        grid.style.height = height + connector.borderWidthTotal + 'px';
+      } else {
+        connector.maxRenderedRows = maxRenderedRows;
+        connector.virtualHeight = height;
+        connector.measuredWindowHeight = windowHeight;
+        grid.style.height = windowHeight + connector.borderWidthTotal + 'px';
+        // spacer below the window makes the saved scroll position reachable
+        connector.applyWindowOffset(0);
+      }
+      grid.notifyResize();
+      if(connector.targetScrollTopElement === window) {
+        window.scrollTo(window.scrollX, state.scrollTop);
+      } else {
+        connector.targetElement.scrollTop = state.scrollTop;
+      }
+      if(connector.isWindowed()) {
+        const viewportTop = connector.targetElement === document.body ? 0 : connector.targetElement.getBoundingClientRect().top;
+        connector.applyWindowOffset(connector.computeWindowOffset(grid.getBoundingClientRect(), viewportTop, windowHeight));
+        // first fetch is made from the rendered window before scroll event of the table is handled
+        grid._virtualStart = Math.floor(connector.windowOffset / rowHeight);
+      }
+      afterNextRender(grid, () => {
+        // table could not be scrolled to the window before its rows were rendered
+        connector.applyWindowOffset(connector.windowOffset);
+        connector.recheckSentinel();
+      });
+    }
+
+    grid.$noscrollConnector.scheduleScrollStateSave = function() {
+      const connector = grid.$noscrollConnector;
+      if(!connector.preserveScrollState) {
+        return;
+      }
+      connector._scrollStateJob = Debouncer.debounce(connector._scrollStateJob, timeOut.after(500),
+        () => afterNextRender(grid, () => connector.saveScrollState()));
+    }
+
+    /* Sends grown height, scroll position of target scroll container and average row height to server.
+    *  Sent only when changed, after scrolling and growing have settled. */
+    grid.$noscrollConnector.saveScrollState = function() {
+      const connector = grid.$noscrollConnector;
+      if(!connector.preserveScrollState || !connector.initialScrollDone || connector.pendingRestore
+          || !grid.isConnected || !grid.$server) {
+        return;
+      }
+      const height = connector.isWindowed() ? connector.virtualHeight : connector.getLayout().scrollerHeight;
+      const scrollTop = connector.targetScrollTopElement === window ? window.scrollY : connector.targetElement.scrollTop;
+      const rowHeight = connector.getAverageRowHeight();
+      const state = height + ',' + scrollTop + ',' + rowHeight;
+      if(state === connector.savedScrollState) {
+        return;
+      }
+      connector.savedScrollState = state;
+      grid.$server.saveScrollState(height, scrollTop, rowHeight);
+    }
+
     /* 'showMore' adjusts grid height. Increases height by showMoreRows when there are more items to show.
-    *  Or decreases height by removing all extra space below last row. */
+    *  Or decreases height by removing all extra space below last row. Calls made within one frame or while
+    *  grid is loading are merged into one growth step of the combined size. Growth step reads layout
+    *  first and then only writes, remaining content fit is done when resize observer reports new sizes. */
     grid.showMore = function() {
       if(!grid.$noscrollConnector.targetElement) {
         return;
@@ -189,40 +595,158 @@ window.Vaadin.Flow.noscrollGridConnector = {
       if(grid.$noscrollConnector.borderWidthTotal === undefined) {
         grid.$noscrollConnector.borderWidthTotal = grid.getBoundingClientRect().bottom - grid.getBoundingClientRect().top - this.$.scroller.clientHeight;
       }
-      if(grid.size <= grid._physicalCount
-          && (this.$.scroller.clientHeight >= this.$.items.clientHeight + this.$.header.clientHeight + this.$.footer.clientHeight)) {
+      if(!grid.$noscrollConnector.canShowMore()) {
+        return;
+      }
+      grid.$noscrollConnector.requestedSteps++;
+      if(grid.$noscrollConnector.showMoreScheduled) {
         return;
       }
+      grid.$noscrollConnector.showMoreScheduled = true;
       grid._toggleAttribute('showmore', true, grid);
-      afterNextRender(grid, () => {
-        let newGridHeightWithoutBorder = grid.$.scroller.clientHeight + grid.$noscrollConnector.getShowMorePixelSize();
-        grid.style.height = newGridHeightWithoutBorder + grid.$noscrollConnector.borderWidthTotal + 'px';
-        grid.notifyResize();
-
-        const table = grid.$.table;
-        let contentHeight = grid.$.items.clientHeight + grid.$.header.clientHeight + grid.$.footer.clientHeight;
-        if(grid._hasHorizontalScrollBar()) {
-          contentHeight += grid.$noscrollConnector.scrollbarWidth;
+      grid.$noscrollConnector.beginGrowthStep();
+      grid.$noscrollConnector.whenLoaded(() => afterNextRender(grid, () => {
+        const connector = grid.$noscrollConnector;
+        const start = performance.now();
+        const rowCount = connector.getShowMoreRowCount() * Math.min(connector.requestedSteps, connector.maxCoalescedSteps);
+        connector.requestedSteps = 0;
+        connector.showMoreScheduled = false;
+        if(connector.growthStep) {
+          connector.growthStep.rows += rowCount;
         }
+        // measure phase, only reads layout
+        let newGridHeightWithoutBorder = connector.getLayout().scrollerHeight + connector.getShowMorePixelSize(rowCount);
+        const windowMeasurement = connector.measureWindow(newGridHeightWithoutBorder, rowCount);
 
-        if(contentHeight < newGridHeightWithoutBorder) {
-          grid.style.height = contentHeight + grid.$noscrollConnector.borderWidthTotal + 'px';
+        // mutate phase
+        if(!windowMeasurement || !connector.growWindow(windowMeasurement)) {
+          grid.style.height = newGridHeightWithoutBorder + connector.borderWidthTotal + 'px';
           grid.notifyResize();
+          connector.fitPending = true;
+          if(!connector.resizeObserver) {
+            connector.measureLayout();
+            connector.fitToContent();
+          }
         }
+        connector.addLayoutTime(performance.now() - start);
 
         afterNextRender(grid, () => {
+          connector.fitPending = false;
           grid._toggleAttribute('showmore', false, grid);
+          connector.endGrowthStep();
+          connector.recheckSentinel();
         });
+      }));
+    }
+
+    /* Starts observing sizes of grid parts. Resize observer is notified after layout and before paint,
+    *  so sizes are read without forcing layout. Grid is fitted to its content in the next animation frame,
+    *  as resizing observed elements inside the callback would loop the observer within the same frame. */
+    grid.$noscrollConnector.observeLayout = function() {
+      const connector = grid.$noscrollConnector;
+      if(connector.resizeObserver || !('ResizeObserver' in window)) {
+        return;
+      }
+      connector.measureLayout();
+      connector.resizeObserver = new ResizeObserver(() => {
+        connector.measureLayout();
+        if(connector.fitPending && !connector.fitFrame) {
+          connector.fitFrame = requestAnimationFrame(() => {
+            const start = performance.now();
+            connector.fitFrame = 0;
+            connector.fitToContent();
+            connector.addLayoutTime(performance.now() - start);
+          });
+        }
+        if(connector.columnVirtualization) {
+          connector.scheduleVisibleColumns();
+        }
       });
+      [grid.$.scroller, grid.$.items, grid.$.header, grid.$.footer].forEach(element => connector.resizeObserver.observe(element));
+    }
+
+    grid.$noscrollConnector.measureLayout = function() {
+      const layout = grid.$noscrollConnector.layout;
+      layout.scrollerHeight = grid.$.scroller.clientHeight;
+      layout.itemsHeight = grid.$.items.clientHeight;
+      layout.headerHeight = grid.$.header.clientHeight;
+      layout.footerHeight = grid.$.footer.clientHeight;
+      layout.horizontalScrollBar = grid._hasHorizontalScrollBar();
+    }
+
+    /* Returns sizes of grid parts. Sizes are read from layout only when resize observer is not supported. */
+    grid.$noscrollConnector.getLayout = function() {
+      if(!grid.$noscrollConnector.resizeObserver) {
+        grid.$noscrollConnector.measureLayout();
+      }
+      return grid.$noscrollConnector.layout;
+    }
+
+    /* Removes extra space below the last row after growth step. Uses measured sizes only. */
+    grid.$noscrollConnector.fitToContent = function() {
+      const connector = grid.$noscrollConnector;
+      const layout = connector.layout;
+      let contentHeight = layout.itemsHeight + layout.headerHeight + layout.footerHeight;
+      if(layout.horizontalScrollBar) {
+        contentHeight += connector.scrollbarWidth;
+      }
+      if(contentHeight < layout.scrollerHeight) {
+        connector.fitPending = false;
+        grid.style.height = contentHeight + connector.borderWidthTotal + 'px';
+        grid.notifyResize();
+      }
+    }
+
+    grid.$noscrollConnector.scheduleVisibleColumns = function() {
+      const connector = grid.$noscrollConnector;
+      connector._visibleColumnsJob = Debouncer.debounce(connector._visibleColumnsJob, timeOut.after(100),
+        () => afterNextRender(grid, () => connector.reportVisibleColumns()));
+    }
+
+    /* Reports columns within half a viewport width from the horizontal viewport of the grid to server.
+    *  Frozen columns are always in view. Report is sent only when the set of columns changes. */
+    grid.$noscrollConnector.reportVisibleColumns = function() {
+      const connector = grid.$noscrollConnector;
+      if(!connector.columnVirtualization) {
+        return;
+      }
+      const tableRect = grid.$.table.getBoundingClientRect();
+      const margin = tableRect.width / 2;
+      const columnIds = [];
+      grid.querySelectorAll('vaadin-grid-column[noscroll-column]').forEach(column => {
+        if(column.hidden) {
+          return;
+        }
+        const cell = column._headerCell || (column._cells && column._cells[0]);
+        let inView = column.frozen || !cell;
+        if(!inView) {
+          const rect = cell.getBoundingClientRect();
+          inView = rect.right >= tableRect.left - margin && rect.left <= tableRect.right + margin;
+        }
+        if(inView) {
+          columnIds.push(column.getAttribute('noscroll-column'));
+        }
+      });
+      const visibleColumns = columnIds.join(',');
+      if(visibleColumns !== connector.visibleColumns) {
+        connector.visibleColumns = visibleColumns;
+        grid.$server.setVisibleColumns(visibleColumns);
+      }
+    }
+
+    grid.$noscrollConnector.addLayoutTime = function(time) {
+      if(grid.$noscrollConnector.growthStep) {
+        grid.$noscrollConnector.growthStep.layoutTime += time;
+      }
     }
 
     grid._trimHeightToFit = function() {
-      const table = grid.$.table;
-      let contentHeight = grid._physicalBottom + grid.$.header.clientHeight + grid.$.footer.clientHeight;
-      if(grid._hasHorizontalScrollBar()) {
+      const layout = grid.$noscrollConnector.getLayout();
+      let contentHeight = grid._physicalBottom + layout.headerHeight + layout.footerHeight;
+      if(layout.horizontalScrollBar) {
         contentHeight += grid.$noscrollConnector.scrollbarWidth;
       }
-      if(contentHeight < grid.$.scroller.clientHeight) {
+      if(contentHeight < layout.scrollerHeight) {
         grid.style.height = contentHeight + grid.$noscrollConnector.borderWidthTotal + 'px';
         grid.notifyResize();
       }
@@ -233,19 +757,544 @@ window.Vaadin.Flow.noscrollGridConnector = {
       return (table.scrollLeft < table.scrollWidth - table.clientWidth) || table.scrollLeft > 0;
     }
 
+    /* 'showMoreToIndex' jumps to given row without showing all rows before it. Grid is switched to bounded
+    *  window that covers estimated height up to the row. Rows before the window are fetched only when
+    *  scrolled into view. */
+    grid.showMoreToIndex = function(index) {
+      const connector = grid.$noscrollConnector;
+      if(!connector.targetElement) {
+        grid.scrollToIndex(index);
+        return;
+      }
+      connector.initialScrollDone = true;
+      connector.resetOriginalGridWheelAndTouchListeners();
+      afterNextRender(grid, () => {
+        if(connector.borderWidthTotal === undefined) {
+          connector.borderWidthTotal = grid.getBoundingClientRect().bottom - grid.getBoundingClientRect().top - grid.$.scroller.clientHeight;
+        }
+        const averageRowHeight = connector.getAverageRowHeight();
+        const chromeHeight = grid.$.header.clientHeight + grid.$.footer.clientHeight;
+        const shownHeight = connector.isWindowed() ? connector.virtualHeight : grid.$.scroller.clientHeight;
+        const neededHeight = Math.min((index + 1 + connector.showMoreRows) * averageRowHeight + chromeHeight, grid.$.table.scrollHeight);
+        if(neededHeight > shownHeight) {
+          if(connector.maxRenderedRows <= 0) {
+            connector.maxRenderedRows = 2 * Math.max(connector.showMoreRows, grid.pageSize);
+          }
+          const windowHeight = Math.min(connector.maxRenderedRows * averageRowHeight + chromeHeight, neededHeight);
+          connector.virtualHeight = neededHeight;
+          connector.measuredWindowHeight = windowHeight;
+          grid.style.height = windowHeight + connector.borderWidthTotal + 'px';
+          grid.notifyResize();
+          // keep a quarter of the window rendered above the row
+          const offset = Math.max(0, Math.min(index * averageRowHeight - windowHeight / 4, neededHeight - windowHeight));
+          connector.applyWindowOffset(Math.round(offset));
+        }
+        afterNextRender(grid, () => connector.scrollTargetToIndex(index));
+      });
+    }
+
+    /* Scrolls target scroll container so that given row is at the top of its viewport. */
+    grid.$noscrollConnector.scrollTargetToIndex = function(index) {
+      const connector = grid.$noscrollConnector;
+      const row = Array.from(grid.$.items.children).find(row => !row.hidden && row.index === index);
+      let rowTop;
+      if(row) {
+        rowTop = row.getBoundingClientRect().top - grid.$.header.clientHeight;
+      } else {
+        rowTop = grid.getBoundingClientRect().top - connector.windowOffset + index * connector.getAverageRowHeight();
+      }
+      const viewportTop = connector.targetElement === document.body ? 0 : connector.targetElement.getBoundingClientRect().top;
+      if(connector.targetScrollTopElement === window) {
+        window.scrollBy(0, rowTop - viewportTop);
+      } else {
+        connector.targetElement.scrollTop += rowTop - viewportTop;
+      }
+    }
+
     grid.resetHeight = function() {
+      grid.$noscrollConnector.clearWindow();
+      grid.$noscrollConnector.maxRenderedRows = grid.$noscrollConnector.configuredMaxRenderedRows;
+      grid.$noscrollConnector.clearRowHeights();
+      grid.$noscrollConnector.detailsHeights.clear();
       grid.style.height = grid.$noscrollConnector.initialHeight;
       grid.setShowMoreOnScrollToBottom(grid.$noscrollConnector.targetElement);
     }
 
+    /* 'refreshHeight' keeps grown height after data change. Height is only trimmed if there are less rows
+    *  than fit in the grid, and grid keeps growing from there if scroll container's bottom is still visible. */
+    grid.refreshHeight = function() {
+      grid.$noscrollConnector._refreshHeightJob = Debouncer.debounce(grid.$noscrollConnector._refreshHeightJob, timeOut.after(grid.$noscrollConnector.refreshHeightDebounceMs), () => {
+        grid.$noscrollConnector.whenLoaded(() => {
+          afterNextRender(grid, () => {
+            const connector = grid.$noscrollConnector;
+            if(connector.isWindowed()) {
+              connector.virtualHeight = Math.min(connector.virtualHeight, grid.$.table.scrollHeight);
+              connector.updateWindow();
+            } else {
+              grid._trimHeightToFit();
+            }
+            connector.recheckSentinel();
+          });
+        });
+      });
+    }
+
     grid.setWaitForLoading = function(millisecondsToWait) {
       if(millisecondsToWait >= 0) {
         grid.$noscrollConnector.waitForLoadingMs = millisecondsToWait;
       }
     }
 
-    grid.$noscrollConnector.getShowMorePixelSize = function() {
-      return grid.$noscrollConnector.showMoreRows * Math.ceil(grid._physicalSize / grid._physicalCount);
+    grid.$noscrollConnector.beginGrowthStep = function() {
+      const connector = grid.$noscrollConnector;
+      if(connector.growthStep) {
+        return;
+      }
+      // rows are added when the step is applied and the number of merged triggers is known
+      connector.growthStep = {
+        start: performance.now(),
+        rows: 0,
+        layoutTime: 0,
+        fetchStart: -1,
+        fetchRoundTrip: -1
+      };
+    }
+
+    /* Growth step ends when grid is done loading requested rows and they are rendered. */
+    grid.$noscrollConnector.endGrowthStep = function() {
+      const step = grid.$noscrollConnector.growthStep;
+      if(!step || step.ending) {
+        return;
+      }
+      step.ending = true;
+      grid.$noscrollConnector.whenLoaded(() => {
+        afterNextRender(grid, () => {
+          grid.$noscrollConnector.growthStep = null;
+          grid.$noscrollConnector.reportInitialFill();
+          if(step.fetchRoundTrip >= 0) {
+            grid.$noscrollConnector.expectedLatencyMs = Math.round(0.8 * grid.$noscrollConnector.expectedLatencyMs + 0.2 * step.fetchRoundTrip);
+          }
+          const renderTime = grid.$noscrollConnector.recordTiming('growth-step', step.start,
+            { rows: step.rows, fetchRoundTrip: step.fetchRoundTrip });
+          grid.dispatchEvent(new CustomEvent('noscroll-show-more', {
+            detail: {
+              rows: step.rows,
+              renderTime: renderTime,
+              fetchRoundTrip: step.fetchRoundTrip,
+              layoutTime: Math.round(step.layoutTime)
+            }
+          }));
+          grid.$noscrollConnector.scheduleScrollStateSave();
+        });
+      });
+    }
+
+    grid.$noscrollConnector.whenLoaded = function(callback) {
+      if(!grid.loading) {
+        callback();
+        return;
+      }
+      const listener = () => {
+        if(!grid.loading) {
+          grid.removeEventListener('loading-changed', listener);
+          callback();
+        }
+      };
+      grid.addEventListener('loading-changed', listener);
+    }
+
+    /* Height of given number of rows following the last fully visible row. Measured height is used for rows
+    *  that have been rendered before and average of measured heights for the rest. */
+    grid.$noscrollConnector.getShowMorePixelSize = function(rowCount) {
+      const connector = grid.$noscrollConnector;
+      const lastVisibleIndex = connector.measureRows();
+      if(lastVisibleIndex < 0) {
+        return rowCount * connector.getAverageRowHeight();
+      }
+      let pixels = 0;
+      // effective size includes rows of expanded subtrees in tree grid
+      const effectiveSize = grid._effectiveSize !== undefined ? grid._effectiveSize : grid.size;
+      for(let index = lastVisibleIndex + 1; index <= lastVisibleIndex + rowCount && index < effectiveSize; index++) {
+        pixels += connector.getRowHeight(index);
+      }
+      return pixels;
+    }
+
+    /* Stores heights of rendered rows and returns index of the last row fully visible in grid. Only reads layout. */
+    grid.$noscrollConnector.measureRows = function() {
+      const connector = grid.$noscrollConnector;
+      const visibleBottom = grid.$.table.getBoundingClientRect().bottom - connector.getLayout().footerHeight;
+      let lastVisibleIndex = -1;
+      Array.from(grid.$.items.children).forEach(row => {
+        if(row.hidden || !row._item || row._item.key === undefined) {
+          return;
+        }
+        const rect = row.getBoundingClientRect();
+        if(rect.height > 0) {
+          connector.setRowHeight(row._item.key, rect.height);
+        }
+        connector.setDetailsHeight(row._item.key, connector.getDetailsCellHeight(row));
+        if(rect.bottom <= visibleBottom + 1 && row.index > lastVisibleIndex) {
+          lastVisibleIndex = row.index;
+        }
+      });
+      return lastVisibleIndex;
+    }
+
+    grid.$noscrollConnector.setRowHeight = function(key, height) {
+      const connector = grid.$noscrollConnector;
+      if(connector.rowHeights.has(key)) {
+        connector.rowHeightsTotal -= connector.rowHeights.get(key);
+        connector.rowHeights.delete(key);
+      } else if(connector.rowHeights.size >= connector.maxCachedRowHeights) {
+        const eldestKey = connector.rowHeights.keys().next().value;
+        connector.rowHeightsTotal -= connector.rowHeights.get(eldestKey);
+        connector.rowHeights.delete(eldestKey);
+      }
+      connector.rowHeights.set(key, height);
+      connector.rowHeightsTotal += height;
+    }
+
+    grid.$noscrollConnector.getRowHeight = function(index) {
+      const connector = grid.$noscrollConnector;
+      const item = grid._cache && grid._cache.getItemForIndex(index);
+      if(item && connector.rowHeights.has(item.key)) {
+        return connector.rowHeights.get(item.key);
+      }
+      return connector.getAverageRowHeight();
+    }
+
+    grid.$noscrollConnector.getDetailsCellHeight = function(row) {
+      const detailsCell = row.querySelector('[part~="details-cell"]');
+      return detailsCell && !detailsCell.hidden ? detailsCell.offsetHeight : 0;
+    }
+
+    grid.$noscrollConnector.setDetailsHeight = function(key, height) {
+      const detailsHeights = grid.$noscrollConnector.detailsHeights;
+      if(height <= 0) {
+        detailsHeights.delete(key);
+        return;
+      }
+      if(!detailsHeights.has(key) && detailsHeights.size >= grid.$noscrollConnector.maxCachedRowHeights) {
+        detailsHeights.delete(detailsHeights.keys().next().value);
+      }
+      detailsHeights.set(key, height);
+    }
+
+    /* Applies details opened and closed since the last frame as one height adjustment. Grid height changes
+    *  by the change in details height of the rows shown in grid, so the same rows stay shown. */
+    grid.$noscrollConnector.fitDetails = function() {
+      const connector = grid.$noscrollConnector;
+      const changes = connector.detailsChanges;
+      connector.detailsChanges = 0;
+      // measure phase
+      const layout = connector.getLayout();
+      const visibleBottom = grid.$.table.getBoundingClientRect().bottom - layout.footerHeight;
+      const rows = Array.from(grid.$.items.children)
+        .filter(row => !row.hidden && row._item && row._item.key !== undefined)
+        .sort((row1, row2) => row1.index - row2.index);
+      let delta = 0;
+      rows.forEach(row => {
+        const key = row._item.key;
+        const rect = row.getBoundingClientRect();
+        const height = connector.getDetailsCellHeight(row);
+        // compare with the row position before the details above it changed
+        if(rect.top - delta < visibleBottom) {
+          delta += height - (connector.detailsHeights.get(key) || 0);
+        }
+        if(rect.height > 0) {
+          connector.setRowHeight(key, rect.height);
+        }
+        connector.setDetailsHeight(key, height);
+      });
+      let contentHeight = layout.itemsHeight + layout.headerHeight + layout.footerHeight;
+      if(layout.horizontalScrollBar) {
+        contentHeight += connector.scrollbarWidth;
+      }
+
+      // mutate phase
+      if(delta !== 0) {
+        if(connector.isWindowed()) {
+          connector.virtualHeight = Math.max(layout.scrollerHeight, connector.virtualHeight + delta);
+        } else {
+          const newGridHeightWithoutBorder = Math.min(layout.scrollerHeight + delta, contentHeight);
+          grid.style.height = newGridHeightWithoutBorder + connector.borderWidthTotal + 'px';
+          grid.notifyResize();
+        }
+      }
+      afterNextRender(grid, () => {
+        connector.updateWindow();
+        connector.recheckSentinel();
+        const time = connector.recordTiming('details-resize', connector.detailsChangeStart, { changes: changes });
+        connector.detailsChangeStart = -1;
+        connector.scheduleScrollStateSave();
+        grid.dispatchEvent(new CustomEvent('noscroll-details-resize', { detail: { changes: changes, delta: Math.round(delta), time: time } }));
+      });
+    }
+
+    grid.$noscrollConnector.clearRowHeights = function() {
+      grid.$noscrollConnector.rowHeights.clear();
+      grid.$noscrollConnector.rowHeightsTotal = 0;
+    }
+
+    grid.$noscrollConnector.getShowMoreRowCount = function() {
+      return grid.$noscrollConnector.showMoreRows + grid.$noscrollConnector.getPredictedRows();
+    }
+
+    /* Number of rows user is expected to scroll past while data for them is being fetched. */
+    grid.$noscrollConnector.getPredictedRows = function() {
+      const connector = grid.$noscrollConnector;
+      const averageRowHeight = connector.getAverageRowHeight();
+      if(connector.maxPrefetchRows <= 0 || !(averageRowHeight > 0)) {
+        return 0;
+      }
+      const rows = Math.ceil(connector.getScrollVelocity() * connector.expectedLatencyMs / averageRowHeight);
+      return Math.min(rows, connector.maxPrefetchRows);
+    }
+
+    grid.$noscrollConnector.measureScrollVelocity = function(scrollTop) {
+      const connector = grid.$noscrollConnector;
+      if(connector.maxPrefetchRows <= 0) {
+        return;
+      }
+      const now = performance.now();
+      const elapsed = now - connector.lastScrollTime;
+      if(connector.lastScrollTime >= 0 && elapsed > 0 && elapsed < 500) {
+        // downward pixels per millisecond, smoothed over few frames
+        const velocity = Math.max(0, scrollTop - connector.lastScrollTop) / elapsed;
+        connector.scrollVelocity = 0.7 * connector.scrollVelocity + 0.3 * velocity;
+      } else {
+        connector.scrollVelocity = 0;
+      }
+      connector.lastScrollTop = scrollTop;
+      connector.lastScrollTime = now;
+    }
+
+    grid.$noscrollConnector.getScrollVelocity = function() {
+      // user has stopped scrolling
+      if(performance.now() - grid.$noscrollConnector.lastScrollTime > 200) {
+        return 0;
+      }
+      return grid.$noscrollConnector.scrollVelocity;
+    }
+
+    grid.$noscrollConnector.getAverageRowHeight = function() {
+      const connector = grid.$noscrollConnector;
+      if(connector.rowHeights.size > 0) {
+        return Math.ceil(connector.rowHeightsTotal / connector.rowHeights.size);
+      }
+      return Math.ceil(grid._physicalSize / grid._physicalCount);
+    }
+
+    grid.$noscrollConnector.getPrefetchDistance = function() {
+      return grid.$noscrollConnector.getBasePrefetchDistance()
+        + grid.$noscrollConnector.getPredictedRows() * grid.$noscrollConnector.getAverageRowHeight();
+    }
+
+    grid.$noscrollConnector.getBasePrefetchDistance = function() {
+      const averageRowHeight = grid.$noscrollConnector.getAverageRowHeight();
+      if(grid.$noscrollConnector.prefetchDistanceRows > 0 && averageRowHeight > 0) {
+        return grid.$noscrollConnector.prefetchDistanceRows * averageRowHeight;
+      }
+      return grid.$noscrollConnector.prefetchDistancePx;
+    }
+
+    grid.$noscrollConnector.canShowMore = function() {
+      const effectiveSize = grid._effectiveSize !== undefined ? grid._effectiveSize : grid.size;
+      const layout = grid.$noscrollConnector.getLayout();
+      if(effectiveSize <= grid._physicalCount
+          && (layout.scrollerHeight >= layout.itemsHeight + layout.headerHeight + layout.footerHeight)) {
+        return false;
+      }
+      return !grid.$noscrollConnector.isWindowed() || grid.$noscrollConnector.virtualHeight < grid.$.table.scrollHeight;
+    }
+
+    /* Measure phase of the scroll coordinator. Only reads layout. Returns window offset to apply and whether
+    *  bottom of the grid is within prefetch distance, or null when sentinel alone is enough for this grid. */
+    grid.$noscrollConnector.measureScrollFrame = function(viewport) {
+      const connector = grid.$noscrollConnector;
+      connector.measureScrollVelocity(viewport.scrollTop);
+      connector.scheduleScrollStateSave();
+      if(connector.sentinelObserver && !connector.isWindowed() && connector.maxPrefetchRows <= 0) {
+        return null;
+      }
+      const rect = grid.getBoundingClientRect();
+      const bottom = connector.isWindowed() ? rect.top - connector.windowOffset + connector.virtualHeight : rect.bottom;
+      return {
+        top: rect.top,
+        windowOffset: connector.computeWindowOffset(rect, viewport.top),
+        nearBottom: connector.initialScrollDone && rect.top < viewport.bottom
+          && bottom <= viewport.bottom + connector.getPrefetchDistance() && connector.canShowMore()
+      };
+    }
+
+    /* Places sentinel element at the bottom of grid and observes it against target scroll container.
+    *  Falls back to the scroll coordinator's frame when IntersectionObserver is not supported. */
+    grid.$noscrollConnector.observeSentinel = function() {
+      const connector = grid.$noscrollConnector;
+      connector.unobserveSentinel();
+      if(!('IntersectionObserver' in window) || !connector.targetElement) {
+        return;
+      }
+      if(!connector.sentinel) {
+        connector.sentinel = document.createElement('div');
+        connector.sentinel.setAttribute('aria-hidden', 'true');
+        connector.sentinel.style.position = 'absolute';
+        connector.sentinel.style.left = '0';
+        connector.sentinel.style.bottom = '0';
+        connector.sentinel.style.width = '1px';
+        connector.sentinel.style.height = '1px';
+        connector.sentinel.style.pointerEvents = 'none';
+        connector.sentinel.style.visibility = 'hidden';
+        grid.shadowRoot.appendChild(connector.sentinel);
+      }
+      connector.sentinelObserver = new IntersectionObserver(entries => {
+        if(!connector.initialScrollDone || connector.isWindowed()) {
+          return;
+        }
+        if(entries[entries.length - 1].isIntersecting) {
+          grid.showMore();
+        }
+      }, {
+        root: connector.targetElement === document.body ? null : connector.targetElement,
+        rootMargin: '0px 0px ' + connector.getBasePrefetchDistance() + 'px 0px'
+      });
+      connector.sentinelObserver.observe(connector.sentinel);
+    }
+
+    grid.$noscrollConnector.unobserveSentinel = function() {
+      if(grid.$noscrollConnector.sentinelObserver) {
+        grid.$noscrollConnector.sentinelObserver.disconnect();
+        grid.$noscrollConnector.sentinelObserver = null;
+      }
+    }
+
+    /* Observer reports only changes. Observing again reports current state, so grid keeps growing
+    *  while sentinel stays within prefetch distance after a growth step. */
+    grid.$noscrollConnector.recheckSentinel = function() {
+      const connector = grid.$noscrollConnector;
+      if(connector.sentinelObserver) {
+        connector.sentinelObserver.unobserve(connector.sentinel);
+        connector.sentinelObserver.observe(connector.sentinel);
+      }
+    }
+
+    grid.$noscrollConnector.isWindowed = function() {
+      return grid.$noscrollConnector.maxRenderedRows > 0 && grid.$noscrollConnector.virtualHeight > 0;
+    }
+
+    /* Measure phase of growing the bounded window. Returns null when given height fits without window,
+    *  otherwise the window and grown heights with the geometry needed to place the window. Only reads layout. */
+    grid.$noscrollConnector.measureWindow = function(newGridHeightWithoutBorder, rowCount) {
+      const connector = grid.$noscrollConnector;
+      if(connector.maxRenderedRows <= 0) {
+        return null;
+      }
+      const layout = connector.getLayout();
+      const chromeHeight = layout.headerHeight + layout.footerHeight;
+      const windowHeight = connector.maxRenderedRows * connector.getAverageRowHeight() + chromeHeight;
+      if(!connector.isWindowed() && newGridHeightWithoutBorder <= windowHeight) {
+        return null;
+      }
+      let contentHeight = grid.$.table.scrollHeight;
+      if(layout.horizontalScrollBar) {
+        contentHeight += connector.scrollbarWidth;
+      }
+      const grownHeight = connector.isWindowed()
+        ? connector.virtualHeight + rowCount * connector.getAverageRowHeight()
+        : newGridHeightWithoutBorder;
+      return {
+        windowHeight: windowHeight,
+        virtualHeight: Math.min(grownHeight, contentHeight),
+        gridRect: grid.getBoundingClientRect(),
+        viewportTop: connector.targetElement === document.body ? 0 : connector.targetElement.getBoundingClientRect().top
+      };
+    }
+
+    /* Switches grid into bounded window when grown height would render more than 'maxRenderedRows' rows.
+    *  Grid height is then kept fixed and the grown height is tracked in 'virtualHeight' instead.
+    *  Returns true when growth was handled by the window. Only writes layout. */
+    grid.$noscrollConnector.growWindow = function(measurement) {
+      const connector = grid.$noscrollConnector;
+      if(measurement.virtualHeight <= measurement.windowHeight) {
+        connector.clearWindow();
+        return false;
+      }
+      connector.virtualHeight = measurement.virtualHeight;
+      grid.style.height = measurement.windowHeight + connector.borderWidthTotal + 'px';
+      grid.notifyResize();
+      connector.applyWindowOffset(connector.computeWindowOffset(measurement.gridRect, measurement.viewportTop, measurement.windowHeight));
+      return true;
+    }
+
+    /* Moves the rendered window to follow target scroll container's viewport. Rows above the window
+    *  are added to top margin and rows below it to bottom margin, so scroll height stays the same. */
+    grid.$noscrollConnector.updateWindow = function() {
+      const connector = grid.$noscrollConnector;
+      if(!connector.isWindowed()) {
+        return;
+      }
+      const viewportTop = connector.targetElement === document.body ? 0 : connector.targetElement.getBoundingClientRect().top;
+      connector.applyWindowOffset(connector.computeWindowOffset(grid.getBoundingClientRect(), viewportTop));
+    }
+
+    /* Returns new offset of the rendered window, or -1 if window does not need to move. Window height
+    *  defaults to the measured height of the grid. Only reads layout. */
+    grid.$noscrollConnector.computeWindowOffset = function(gridRect, viewportTop, windowHeight) {
+      const connector = grid.$noscrollConnector;
+      if(!connector.isWindowed()) {
+        return -1;
+      }
+      if(windowHeight === undefined) {
+        windowHeight = connector.getLayout().scrollerHeight;
+      }
+      connector.measuredWindowHeight = windowHeight;
+      const spacerTop = gridRect.top - connector.windowOffset;
+      const visibleOffset = Math.max(0, viewportTop - spacerTop);
+      // keep a quarter of the window rendered above the viewport
+      const offset = Math.max(0, Math.min(visibleOffset - windowHeight / 4, connector.virtualHeight - windowHeight));
+      if(Math.abs(offset - connector.windowOffset) < connector.getAverageRowHeight()
+          && offset + windowHeight < connector.virtualHeight) {
+        return -1;
+      }
+      return Math.round(offset);
+    }
+
+    grid.$noscrollConnector.applyWindowOffset = function(offset) {
+      const connector = grid.$noscrollConnector;
+      if(offset < 0 || !connector.isWindowed()) {
+        return;
+      }
+      // height measured with the offset, so applying does not read layout
+      const windowHeight = connector.measuredWindowHeight;
+      if(!connector.savedMargins) {
+        // application margins are kept and restored when window is cleared
+        const style = getComputedStyle(grid);
+        connector.savedMargins = {
+          top: grid.style.marginTop, bottom: grid.style.marginBottom,
+          baseTop: parseFloat(style.marginTop) || 0, baseBottom: parseFloat(style.marginBottom) || 0
+        };
+      }
+      const margins = connector.savedMargins;
+      connector.windowOffset = offset;
+      grid.style.marginTop = (margins.baseTop + offset) + 'px';
+      grid.style.marginBottom = (margins.baseBottom + Math.max(0, connector.virtualHeight - offset - windowHeight)) + 'px';
+      grid.$.table.scrollTop = offset;
+    }
+
+    grid.$noscrollConnector.clearWindow = function() {
+      const connector = grid.$noscrollConnector;
+      if(connector.virtualHeight === 0) {
+        return;
+      }
+      connector.virtualHeight = 0;
+      connector.windowOffset = 0;
+      if(connector.savedMargins) {
+        grid.style.marginTop = connector.savedMargins.top;
+        grid.style.marginBottom = connector.savedMargins.bottom;
+        connector.savedMargins = null;
+      }
+      grid.$.table.scrollTop = 0;
     }
 
     grid.$connector.fetchPageOriginal = grid.$connector.fetchPage;
@@ -255,26 +1304,117 @@ window.Vaadin.Flow.noscrollGridConnector = {
         grid.$connector.fetchPageOriginal(fetch, page, parentKey);
         return;
       }
-      /* lets make sure that buffer is always same as given page size. Originally it would be number of visible rows.  */
+      /* lets make sure that buffer is always same as given page size. Originally it would be number of visible rows.
+      *  When scrolling fast with velocity based prefetch, buffer has more pages to cover predicted rows. */
+      const connector = grid.$noscrollConnector;
       let start = grid._virtualStart;
       let physicalCount = grid._physicalCount;
+      if(!parentKey && connector.isWindowed()) {
+        // rows outside of the window are not rendered, for example the first page requested before restored
+        // window was placed. Callbacks of pages outside the requested range are resolved by gridConnector.
+        page = Math.min(Math.max(page, Math.floor(start / grid.pageSize)), Math.floor((start + physicalCount - 1) / grid.pageSize));
+      }
       // grid._virtualEnd is read-only
-      grid._physicalCount = grid.pageSize;
-      grid._virtualStart = 0;
+      grid._physicalCount = grid.pageSize * (1 + Math.ceil(grid.$noscrollConnector.getPredictedRows() / grid.pageSize));
+      // in bounded window rendered rows do not start from the first row
+      grid._virtualStart = connector.isWindowed() ? start : 0;
 
-      grid.$connector.fetchPageOriginal(fetch, page, parentKey);
+      const activeRangeFetch = connector.activeRangeFetch(fetch, parentKey, start, physicalCount);
+      grid.$connector.fetchPageOriginal(connector.measureFetch(connector.dedupeFetch(activeRangeFetch, parentKey)), page, parentKey);
       // and revert back to original values
       grid._virtualStart = start;
       grid._physicalCount = physicalCount;
     }
 
+    /* Server keeps items of the latest requested range active and passivates the rest. With maximum number
+    *  of active items, range is sent with the rendered rows and server limits it to pages around them, so
+    *  rendered rows stay active. Pages dropped from the range are requested again when scrolled into view. */
+    grid.$noscrollConnector.activeRangeFetch = function(fetch, parentKey, renderedStart, renderedCount) {
+      if(parentKey) {
+        return fetch;
+      }
+      return (firstIndex, size) => {
+        const connector = grid.$noscrollConnector;
+        if(connector.maxActiveItems <= 0 && !connector.columnVirtualization) {
+          fetch(firstIndex, size);
+          return;
+        }
+        grid.$server.setActiveRange(firstIndex, size, renderedStart, renderedCount);
+      };
+    }
+
+    /* Limited ranges of different pages can end up identical. A range that is already requested and
+    *  not yet received is not requested again. */
+    grid.$noscrollConnector.dedupeFetch = function(fetch, parentKey) {
+      if(parentKey) {
+        return fetch;
+      }
+      return (firstIndex, size) => {
+        const pending = grid.$noscrollConnector.pendingFetch;
+        if(pending && pending.firstIndex === firstIndex && pending.size === size) {
+          return;
+        }
+        grid.$noscrollConnector.pendingFetch = { firstIndex: firstIndex, size: size };
+        fetch(firstIndex, size);
+      };
+    }
+
+    grid.setMaxActiveItems = function(itemCount) {
+      grid.$noscrollConnector.maxActiveItems = itemCount;
+    }
+
+    grid.$noscrollConnector.measureFetch = function(fetch) {
+      return (firstIndex, size) => {
+        const step = grid.$noscrollConnector.growthStep;
+        if(step && step.fetchStart < 0) {
+          step.fetchStart = performance.now();
+        }
+        fetch(firstIndex, size);
+      };
+    }
+
+    grid.$connector.setOriginal = grid.$connector.set;
+    /* overriding gridConnector.js implementation to measure fetch latency of growth step */
+    grid.$connector.set = function(index, items, parentKey) {
+      grid.$connector.setOriginal(index, items, parentKey);
+      grid.$noscrollConnector.dataReceived = true;
+      if(!parentKey) {
+        grid.$noscrollConnector.pendingFetch = null;
+      }
+      const step = grid.$noscrollConnector.growthStep;
+      if(step && step.fetchStart >= 0 && step.fetchRoundTrip < 0) {
+        step.fetchRoundTrip = Math.round(performance.now() - step.fetchStart);
+      }
+      grid.$noscrollConnector.checkReady();
+    }
+
+    grid.$connector.updateSizeOriginal = grid.$connector.updateSize;
+    /* overriding gridConnector.js implementation to remove rows shown for too large item count estimate.
+    *  When item count is unknown, size is exact only after a fetch came back short. */
+    grid.$connector.updateSize = function(newSize) {
+      const shrinks = newSize < grid.size;
+      grid.$connector.updateSizeOriginal(newSize);
+      grid.$noscrollConnector.sizeReceived = true;
+      grid.$noscrollConnector.pendingFetch = null;
+      if(grid.$noscrollConnector.pendingRestore && grid.$noscrollConnector.targetElement) {
+        // before the first rows are requested in the next animation frame
+        grid.$noscrollConnector.applyRestore();
+      }
+      if(shrinks && grid.$noscrollConnector.targetElement) {
+        afterNextRender(grid, () => {
+          grid._trimHeightToFit();
+        });
+      }
+      grid.$noscrollConnector.checkReady();
+    }
+
     /* overriding function _scrollHandler to make sure that keyboard navigation do not scroll */
     grid._scrollHandler = function() {
       if(!grid.$noscrollConnector.targetElement || !grid.$noscrollConnector._keyDown) {
         GridElement.prototype._scrollHandler.call(grid);
         return;
       }
-      grid.$.table.scrollTop = 0; // this will block scrolling
+      grid.$.table.scrollTop = grid.$noscrollConnector.windowOffset; // this will block scrolling
       if(!grid.$noscrollConnector.initialScrollDone) {
         grid.$noscrollConnector.resetOriginalGridWheelAndTouchListeners();
         grid.$noscrollConnector.initialScrollDone = true;
@@ -283,18 +1423,20 @@ window.Vaadin.Flow.noscrollGridConnector = {
       GridElement.prototype._scrollHandler.call(grid);
     }
 
-    /* overriding function _detailsOpenedItemsChanged to show vertical scollbar if needed when details are opened */
+    /* overriding function _detailsOpenedItemsChanged to fold height of opened and closed details into grid height.
+    *  All changes made before the next render are adjusted together. */
     grid._detailsOpenedItemsChanged = function(changeRecord, rowDetailsTemplate, rowDetailsRenderer) {
     	GridElement.prototype._detailsOpenedItemsChanged.call(grid, changeRecord, rowDetailsTemplate, rowDetailsRenderer);
-      if(changeRecord && changeRecord.value.length > 0 && grid.$noscrollConnector.initialScrollDone && grid.style.height == grid.$noscrollConnector.initialHeight) {
-        afterNextRender(grid, () => {
-          // Calling showMore() here will grow grid based of 'showMoreRows' number and makes scrollbar visible.
-          grid.showMore();
-          afterNextRender(grid, () => {
-            grid._trimHeightToFit();
-          });
-        });
+      const connector = grid.$noscrollConnector;
+      if(!changeRecord || !connector.targetElement || !connector.initialScrollDone) {
+        return;
+      }
+      connector.detailsChanges++;
+      if(connector.detailsChangeStart >= 0) {
+        return;
       }
+      connector.detailsChangeStart = performance.now();
+      connector.whenLoaded(() => afterNextRender(grid, () => connector.fitDetails()));
     }
   }
 }
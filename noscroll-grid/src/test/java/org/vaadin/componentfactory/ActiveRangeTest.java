@@ -0,0 +1,71 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.componentfactory;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class ActiveRangeTest {
+
+	private static final int PAGE_SIZE = 50;
+
+	@Test
+	public void limit_noLimit_rangeUnchanged() {
+		assertRange(0, 5000, ActiveRange.limit(0, 5000, 4500, 100, PAGE_SIZE, 0));
+	}
+
+	@Test
+	public void limit_rangeWithinLimit_rangeUnchanged() {
+		assertRange(100, 300, ActiveRange.limit(100, 300, 150, 100, PAGE_SIZE, 500));
+	}
+
+	@Test
+	public void limit_grownRange_keepsPagesAroundRenderedRows() {
+		// rendered rows 4500-4599 are pages 90-91, three pages are added on both sides
+		assertRange(4350, 400, ActiveRange.limit(0, 5000, 4500, 100, PAGE_SIZE, 400));
+	}
+
+	@Test
+	public void limit_renderedRowsAtEnd_keepsLastPages() {
+		assertRange(4600, 400, ActiveRange.limit(0, 5000, 4900, 100, PAGE_SIZE, 400));
+	}
+
+	@Test
+	public void limit_renderedRowsAtStart_keepsFirstPages() {
+		assertRange(0, 400, ActiveRange.limit(0, 5000, 0, 100, PAGE_SIZE, 400));
+	}
+
+	@Test
+	public void limit_renderedRowsExceedLimit_keepsRenderedPages() {
+		assertRange(1000, 500, ActiveRange.limit(0, 5000, 1010, 480, PAGE_SIZE, 200));
+	}
+
+	@Test
+	public void limit_belowOnePage_keepsOnePage() {
+		assertRange(2500, 50, ActiveRange.limit(0, 5000, 2510, 10, PAGE_SIZE, 10));
+	}
+
+	@Test
+	public void limit_renderedRowsOutsideRequestedRange_staysWithinRange() {
+		assertRange(1000, 200, ActiveRange.limit(1000, 1000, 0, 100, PAGE_SIZE, 200));
+	}
+
+	private static void assertRange(int start, int length, ActiveRange range) {
+		assertEquals(start, range.getStart());
+		assertEquals(length, range.getLength());
+	}
+}
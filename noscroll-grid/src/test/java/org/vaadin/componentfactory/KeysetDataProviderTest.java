@@ -0,0 +1,134 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.componentfactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import com.vaadin.flow.data.provider.SortDirection;
+
+public class KeysetDataProviderTest {
+
+	private static final int PAGE_SIZE = 10;
+
+	private final List<Integer> items = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+	private final List<KeysetQuery<Integer, Integer, String>> queries = new ArrayList<>();
+	private KeysetDataProvider<Integer, Integer, String> dataProvider;
+
+	@Before
+	public void setUp() {
+		dataProvider = new KeysetDataProvider<>(query -> {
+			queries.add(query);
+			int start = query.getAfterKey().map(key -> key + 1).orElse(query.getOffset());
+			return items.subList(Math.min(start, items.size()), Math.min(start + query.getLimit(), items.size()))
+					.stream();
+		}, query -> items.size(), item -> item);
+	}
+
+	@Test
+	public void fetch_firstPage_usesOffset() {
+		fetch(0, null, Collections.emptyList());
+
+		assertFalse(lastQuery().getAfterKey().isPresent());
+		assertEquals(0, lastQuery().getOffset());
+	}
+
+	@Test
+	public void fetch_continuesPreviousPage_passesLastKey() {
+		fetch(0, null, Collections.emptyList());
+		List<Integer> page = fetch(PAGE_SIZE, null, Collections.emptyList());
+
+		assertEquals(Integer.valueOf(PAGE_SIZE - 1), lastQuery().getAfterKey().get());
+		assertEquals(items.subList(PAGE_SIZE, 2 * PAGE_SIZE), page);
+	}
+
+	@Test
+	public void fetch_jump_fallsBackToOffset() {
+		fetch(0, null, Collections.emptyList());
+		List<Integer> page = fetch(50, null, Collections.emptyList());
+
+		assertFalse(lastQuery().getAfterKey().isPresent());
+		assertEquals(50, lastQuery().getOffset());
+		assertEquals(items.subList(50, 50 + PAGE_SIZE), page);
+	}
+
+	@Test
+	public void fetch_sortOrderChanged_fallsBackToOffset() {
+		fetch(0, null, Collections.emptyList());
+		fetch(PAGE_SIZE, null, Collections.singletonList(new QuerySortOrder("id", SortDirection.DESCENDING)));
+
+		assertFalse(lastQuery().getAfterKey().isPresent());
+	}
+
+	@Test
+	public void fetch_filterChanged_fallsBackToOffset() {
+		fetch(0, null, Collections.emptyList());
+		fetch(PAGE_SIZE, "filter", Collections.emptyList());
+
+		assertFalse(lastQuery().getAfterKey().isPresent());
+	}
+
+	@Test
+	public void fetch_afterRefreshAll_fallsBackToOffset() {
+		fetch(0, null, Collections.emptyList());
+		dataProvider.refreshAll();
+		fetch(PAGE_SIZE, null, Collections.emptyList());
+
+		assertFalse(lastQuery().getAfterKey().isPresent());
+	}
+
+	@Test
+	public void fetch_shortPage_doesNotRememberKey() {
+		fetch(items.size() - 5, null, Collections.emptyList());
+		fetch(items.size(), null, Collections.emptyList());
+
+		assertFalse(lastQuery().getAfterKey().isPresent());
+	}
+
+	@Test
+	public void fetch_moreThanSixteenPages_oldestKeyDropped() {
+		for (int page = 0; page <= 16; page++) {
+			fetch(page * PAGE_SIZE, null, Collections.emptyList());
+		}
+
+		// 17 page ends remembered, the first one is dropped
+		fetch(PAGE_SIZE, null, Collections.emptyList());
+		assertFalse(lastQuery().getAfterKey().isPresent());
+
+		fetch(17 * PAGE_SIZE, null, Collections.emptyList());
+		assertEquals(Integer.valueOf(17 * PAGE_SIZE - 1), lastQuery().getAfterKey().get());
+	}
+
+	private List<Integer> fetch(int offset, String filter, List<QuerySortOrder> sortOrders) {
+		return dataProvider.fetch(new Query<>(offset, PAGE_SIZE, sortOrders, null, filter))
+				.collect(Collectors.toList());
+	}
+
+	private KeysetQuery<Integer, Integer, String> lastQuery() {
+		return queries.get(queries.size() - 1);
+	}
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.componentfactory;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import com.vaadin.flow.data.provider.SortDirection;
+
+public class ReadAheadDataProviderTest {
+
+	private static final int PAGE_SIZE = 10;
+
+	private final List<Integer> items = IntStream.range(0, 35).boxed().collect(Collectors.toList());
+	private final List<String> queries = new ArrayList<>();
+	private final Deque<Runnable> tasks = new ArrayDeque<>();
+	private boolean failing;
+	private ReadAheadDataProvider<Integer, String> dataProvider;
+
+	@Before
+	public void setUp() {
+		dataProvider = new ReadAheadDataProvider<>(query -> {
+			queries.add(query.getOffset() + " " + query.getFilter().orElse("") + " "
+					+ query.getSortOrders().stream().map(QuerySortOrder::getSorted).collect(Collectors.joining()));
+			if (failing) {
+				throw new IllegalStateException("Back end not available");
+			}
+			int end = Math.min(query.getOffset() + query.getLimit(), items.size());
+			return items.subList(Math.min(query.getOffset(), end), end).stream();
+		}, query -> items.size(), tasks::add);
+	}
+
+	@Test
+	public void fetch_fullPage_readsNextPageAhead() {
+		assertEquals(items.subList(0, PAGE_SIZE), fetch(0, null, "id"));
+		assertEquals(1, tasks.size());
+
+		runTasks();
+
+		assertEquals(Arrays.asList("0  id", "10  id"), queries);
+	}
+
+	@Test
+	public void fetch_pageReadAhead_servedFromBuffer() {
+		fetch(0, null, "id");
+		runTasks();
+
+		assertEquals(items.subList(PAGE_SIZE, 2 * PAGE_SIZE), fetch(PAGE_SIZE, null, "id"));
+
+		assertEquals(Arrays.asList("0  id", "10  id"), queries);
+	}
+
+	@Test
+	public void fetch_shortPage_noReadAhead() {
+		fetch(0, null, "id");
+		runTasks();
+		fetch(PAGE_SIZE, null, "id");
+		runTasks();
+		fetch(2 * PAGE_SIZE, null, "id");
+		runTasks();
+
+		assertEquals(items.subList(3 * PAGE_SIZE, items.size()), fetch(3 * PAGE_SIZE, null, "id"));
+
+		assertEquals(0, tasks.size());
+	}
+
+	@Test
+	public void fetch_otherLimit_fetchedAgain() {
+		fetch(0, null, "id");
+		runTasks();
+
+		dataProvider.fetch(new Query<>(PAGE_SIZE, 2 * PAGE_SIZE, sortOrders("id"), null, null)).count();
+
+		assertEquals(Arrays.asList("0  id", "10  id", "10  id"), queries);
+	}
+
+	@Test
+	public void fetch_expired_fetchedAgain() throws InterruptedException {
+		dataProvider.setExpiration(0);
+		fetch(0, null, "id");
+		runTasks();
+		Thread.sleep(5);
+
+		assertEquals(items.subList(PAGE_SIZE, 2 * PAGE_SIZE), fetch(PAGE_SIZE, null, "id"));
+
+		assertEquals(Arrays.asList("0  id", "10  id", "10  id"), queries);
+	}
+
+	@Test
+	public void fetch_readAheadFailed_fetchedAgain() {
+		fetch(0, null, "id");
+		failing = true;
+		runTasks();
+		failing = false;
+
+		assertEquals(items.subList(PAGE_SIZE, 2 * PAGE_SIZE), fetch(PAGE_SIZE, null, "id"));
+
+		assertEquals(Arrays.asList("0  id", "10  id", "10  id"), queries);
+	}
+
+	@Test
+	public void fetch_sortOrderChanged_readAheadCancelled() {
+		fetch(0, null, "id");
+
+		fetch(PAGE_SIZE, null, "name");
+		runTasks();
+
+		// read ahead of the previous sort order is not run
+		assertEquals(Arrays.asList("0  id", "10  name", "20  name"), queries);
+	}
+
+	@Test
+	public void fetch_filterChanged_fetchedAgain() {
+		fetch(0, "a", "id");
+		runTasks();
+
+		fetch(PAGE_SIZE, "b", "id");
+
+		assertEquals(Arrays.asList("0 a id", "10 a id", "10 b id"), queries);
+	}
+
+	@Test
+	public void refreshAll_readAheadCancelled() {
+		fetch(0, null, "id");
+
+		dataProvider.refreshAll();
+		runTasks();
+		fetch(PAGE_SIZE, null, "id");
+
+		assertEquals(Arrays.asList("0  id", "10  id"), queries);
+		assertEquals(1, tasks.size());
+	}
+
+	@Test
+	public void refreshAll_bufferCleared() {
+		fetch(0, null, "id");
+		runTasks();
+
+		dataProvider.refreshAll();
+		fetch(PAGE_SIZE, null, "id");
+
+		assertEquals(Arrays.asList("0  id", "10  id", "10  id"), queries);
+	}
+
+	@Test
+	public void refreshItem_bufferCleared() {
+		fetch(0, null, "id");
+		runTasks();
+
+		dataProvider.refreshItem(5);
+		fetch(PAGE_SIZE, null, "id");
+
+		assertEquals(Arrays.asList("0  id", "10  id", "10  id"), queries);
+	}
+
+	private List<Integer> fetch(int offset, String filter, String sorted) {
+		return dataProvider.fetch(new Query<>(offset, PAGE_SIZE, sortOrders(sorted), null, filter))
+				.collect(Collectors.toList());
+	}
+
+	private static List<QuerySortOrder> sortOrders(String sorted) {
+		return Collections.singletonList(new QuerySortOrder(sorted, SortDirection.ASCENDING));
+	}
+
+	private void runTasks() {
+		while (!tasks.isEmpty()) {
+			tasks.poll().run();
+		}
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.componentfactory;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class RowValueCacheTest {
+
+	private RowValueCache cache;
+	private AtomicInteger computed;
+
+	@Before
+	public void setUp() {
+		cache = new RowValueCache(2);
+		computed = new AtomicInteger();
+	}
+
+	@Test
+	public void get_sameVersion_computedOnce() {
+		assertEquals("1-a", get(1, "v1", "a"));
+		assertEquals("1-a", get(1, "v1", "a"));
+		assertEquals(1, computed.get());
+	}
+
+	@Test
+	public void get_otherColumn_computedForColumn() {
+		get(1, "v1", "a");
+		assertEquals("1-b", get(1, "v1", "b"));
+		assertEquals(2, computed.get());
+	}
+
+	@Test
+	public void get_versionChanged_valuesReplaced() {
+		get(1, "v1", "a");
+		get(1, "v1", "b");
+		get(1, "v2", "a");
+		assertEquals(3, computed.get());
+		// value of the other column is dropped with the old version
+		get(1, "v2", "b");
+		assertEquals(4, computed.get());
+	}
+
+	@Test
+	public void get_nullVersion_cached() {
+		get(1, null, "a");
+		get(1, null, "a");
+		assertEquals(1, computed.get());
+	}
+
+	@Test
+	public void get_overMaxRows_evictsLeastRecentlyUsed() {
+		get(1, "v1", "a");
+		get(2, "v1", "a");
+		// row 1 is used again, so row 2 is the eldest
+		get(1, "v1", "a");
+		get(3, "v1", "a");
+		assertEquals(1, cache.getEvictions());
+		assertEquals(3, computed.get());
+		get(1, "v1", "a");
+		assertEquals(3, computed.get());
+		get(2, "v1", "a");
+		assertEquals(4, computed.get());
+		assertEquals(2, cache.getEvictions());
+	}
+
+	@Test
+	public void get_counters_countHitsAndMisses() {
+		get(1, "v1", "a");
+		get(1, "v1", "a");
+		get(1, "v1", "b");
+		get(1, "v2", "b");
+		get(1, "v2", "b");
+		assertEquals(2, cache.getHits());
+		assertEquals(3, cache.getMisses());
+		assertEquals(0, cache.getEvictions());
+	}
+
+	@Test
+	public void remove_row_computedAgain() {
+		get(1, "v1", "a");
+		cache.remove(1);
+		get(1, "v1", "a");
+		assertEquals(2, computed.get());
+		assertEquals(2, cache.getMisses());
+	}
+
+	@Test
+	public void clear_allRows_computedAgain() {
+		get(1, "v1", "a");
+		get(2, "v1", "a");
+		cache.clear();
+		get(1, "v1", "a");
+		get(2, "v1", "a");
+		assertEquals(4, computed.get());
+		assertEquals(0, cache.getEvictions());
+	}
+
+	private Object get(Object id, Object version, String columnId) {
+		return cache.get(id, version, columnId, () -> {
+			computed.incrementAndGet();
+			return id + "-" + columnId;
+		});
+	}
+}